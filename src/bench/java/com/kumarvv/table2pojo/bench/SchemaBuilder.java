@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.bench;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * builds a synthetic schema of many tables, deterministic for a given seed so that runs
+ * on different commits generate exactly the same tables.
+ */
+public class SchemaBuilder {
+
+    /**
+     * column count distribution between min and max columns
+     */
+    public enum Distribution {
+        /** every column count equally likely */
+        UNIFORM,
+        /** mostly narrow tables with a long tail of wide ones, like typical business schemas */
+        SKEWED
+    }
+
+    /** type mix, column sql type => weight */
+    public static final String DEFAULT_TYPES = "VARCHAR:40,NUMBER:15,INTEGER:10,BIGINT:10,FLAG:5,DECIMAL:5,DATE:5,TIMESTAMP:5,CLOB:3,BLOB:2";
+
+    private static final Map<String, String> SQL_TYPES = new LinkedHashMap<>();
+
+    static {
+        SQL_TYPES.put("VARCHAR", "VARCHAR(100)");
+        SQL_TYPES.put("NUMBER", "NUMERIC(12,0)");
+        SQL_TYPES.put("INTEGER", "INTEGER");
+        SQL_TYPES.put("BIGINT", "BIGINT");
+        SQL_TYPES.put("FLAG", "NUMERIC(1,0)");
+        SQL_TYPES.put("DECIMAL", "NUMERIC(15,2)");
+        SQL_TYPES.put("DOUBLE", "DOUBLE");
+        SQL_TYPES.put("DATE", "DATE");
+        SQL_TYPES.put("TIMESTAMP", "TIMESTAMP");
+        SQL_TYPES.put("CLOB", "CLOB");
+        SQL_TYPES.put("BLOB", "BLOB");
+    }
+
+    private int minColumns = 5;
+    private int maxColumns = 40;
+    private Distribution distribution = Distribution.SKEWED;
+    private String types = DEFAULT_TYPES;
+    private long seed = 1;
+    private int foreignKeys = 2;
+
+    /**
+     * create the tables T00001...Tnnnnn, each with a numeric primary key ID column and up to
+     * foreignKeys REF_n_ID columns referencing the ID of a table created before it
+     *
+     * @param conn
+     * @param tableCount
+     * @return total number of columns
+     * @throws SQLException
+     */
+    public long build(final Connection conn, final int tableCount) throws SQLException {
+        final Random random = new Random(seed);
+        // separate sequence, the other columns stay the same whatever the foreign key count
+        final Random refRandom = new Random(seed + 1);
+        final String[] typeTable = weightedTypes();
+        final int width = String.valueOf(tableCount).length();
+
+        long totalColumns = 0;
+        try (Statement stmt = conn.createStatement()) {
+            for (int t = 1; t <= tableCount; t++) {
+                int columns = columnCount(random);
+                StringBuilder sb = new StringBuilder();
+                sb.append("create table T").append(pad(t, width)).append(" (ID NUMERIC(18,0) primary key");
+                for (int c = 1; c < columns; c++) {
+                    String type = typeTable[random.nextInt(typeTable.length)];
+                    sb.append(", ").append(type).append("_COL_").append(c).append(" ").append(SQL_TYPES.get(type));
+                }
+                int refs = t > 1 && foreignKeys > 0 ? refRandom.nextInt(foreignKeys + 1) : 0;
+                for (int r = 1; r <= refs; r++) {
+                    sb.append(", REF_").append(r).append("_ID NUMERIC(18,0) references T")
+                            .append(pad(1 + refRandom.nextInt(t - 1), width)).append("(ID)");
+                }
+                sb.append(")");
+                stmt.addBatch(sb.toString());
+                totalColumns += columns + refs;
+
+                if (t % 500 == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+        return totalColumns;
+    }
+
+    /**
+     * column count of the next table
+     *
+     * @param random
+     * @return
+     */
+    protected int columnCount(final Random random) {
+        int range = maxColumns - minColumns + 1;
+        if (distribution == Distribution.UNIFORM) {
+            return minColumns + random.nextInt(range);
+        }
+        double r = random.nextDouble();
+        return minColumns + (int) (r * r * r * range);
+    }
+
+    /**
+     * expand type weights into a lookup table, one entry per weight unit
+     *
+     * @return
+     */
+    private String[] weightedTypes() {
+        final List<String> table = new ArrayList<>();
+        for (String entry : types.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String type = parts[0].trim().toUpperCase(Locale.ROOT);
+            if (!SQL_TYPES.containsKey(type)) {
+                throw new IllegalArgumentException("unknown column type: " + type + ", supported: " + SQL_TYPES.keySet());
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                table.add(type);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("no column types");
+        }
+        return table.toArray(new String[0]);
+    }
+
+    private String pad(final int n, final int width) {
+        StringBuilder sb = new StringBuilder(String.valueOf(n));
+        while (sb.length() < width) {
+            sb.insert(0, '0');
+        }
+        return sb.toString();
+    }
+
+    public int getMinColumns() {
+        return minColumns;
+    }
+    public void setMinColumns(int minColumns) {
+        this.minColumns = minColumns;
+    }
+
+    public int getMaxColumns() {
+        return maxColumns;
+    }
+    public void setMaxColumns(int maxColumns) {
+        this.maxColumns = maxColumns;
+    }
+
+    public Distribution getDistribution() {
+        return distribution;
+    }
+    public void setDistribution(Distribution distribution) {
+        this.distribution = distribution;
+    }
+
+    public String getTypes() {
+        return types;
+    }
+    public void setTypes(String types) {
+        this.types = types;
+    }
+
+    public int getForeignKeys() {
+        return foreignKeys;
+    }
+    public void setForeignKeys(int foreignKeys) {
+        this.foreignKeys = foreignKeys;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
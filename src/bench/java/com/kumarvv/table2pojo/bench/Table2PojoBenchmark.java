@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.bench;
+
+import com.kumarvv.table2pojo.Table2Pojo;
+import com.kumarvv.table2pojo.core.Log;
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.cli.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * runs the full pipeline against synthetic schemas in an embedded H2 database at several
+ * table counts and thread counts, appending one CSV row per measured run.
+ *
+ * rows carry the commit id and all schema parameters, so CSV files of different commits can be
+ * concatenated and compared as long as the same arguments (and seed) are used.
+ */
+public class Table2PojoBenchmark {
+
+    private static final String CSV_HEADER = "commit,java,tables,columns,distribution,types,seed,foreign_keys,keys,threads,iteration,"
+            + "elapsed_ms,tables_per_sec,peak_heap_mb,enumerate_ms,keys_ms,metadata_ms,render_ms,write_ms,errors";
+
+    private int[] tableCounts = {1000, 10000, 50000};
+    private int[] threadCounts = {1, 2, 4, 8};
+    private int warmups = 1;
+    private int iterations = 3;
+    private boolean keys;
+    private String commit;
+    private Path outDir = Paths.get("build", "bench", "out");
+    private Path csv = Paths.get("build", "bench", "results.csv");
+    private final SchemaBuilder schemaBuilder = new SchemaBuilder();
+
+    /**
+     * main
+     *
+     * @param args
+     */
+    public static void main(String[] args) throws Exception {
+        Table2PojoBenchmark benchmark = new Table2PojoBenchmark();
+        if (benchmark.parse(args)) {
+            benchmark.run();
+        }
+        Log.flush();
+    }
+
+    /**
+     * parse options
+     *
+     * @param args
+     * @return false if only help was requested
+     * @throws ParseException
+     */
+    protected boolean parse(String[] args) throws ParseException {
+        Options options = new Options();
+        options.addOption("t", "tables", true, "table counts delimited by , (comma), default 1000,10000,50000");
+        options.addOption("r", "threads", true, "writer thread counts delimited by , (comma), default 1,2,4,8");
+        options.addOption("n", "min-columns", true, "minimum columns per table, default " + schemaBuilder.getMinColumns());
+        options.addOption("x", "max-columns", true, "maximum columns per table, default " + schemaBuilder.getMaxColumns());
+        options.addOption("y", "distribution", true, "column count distribution: uniform or skewed, default skewed");
+        options.addOption("m", "types", true, "column type mix type:weight delimited by , (comma), default " + SchemaBuilder.DEFAULT_TYPES);
+        options.addOption("e", "seed", true, "schema seed, default " + schemaBuilder.getSeed());
+        options.addOption("f", "foreign-keys", true, "maximum foreign key columns per table, default " + schemaBuilder.getForeignKeys());
+        options.addOption("k", "keys", false, "run with primary/foreign key loading");
+        options.addOption("w", "warmups", true, "warmup runs per table count, default " + warmups);
+        options.addOption("i", "iterations", true, "measured runs per thread count, default " + iterations);
+        options.addOption("c", "commit", true, "commit id recorded in the results, default from git");
+        options.addOption("d", "dir", true, "directory for the generated pojos, default " + outDir);
+        options.addOption("o", "out", true, "CSV file the results are appended to, default " + csv);
+        options.addOption("h", "help", false, "print help");
+
+        CommandLine line = new DefaultParser().parse(options, args);
+        if (line.hasOption("h")) {
+            new HelpFormatter().printHelp("bench", options);
+            return false;
+        }
+
+        if (line.hasOption("t")) {
+            tableCounts = toInts(line.getOptionValue("t"));
+        }
+        if (line.hasOption("r")) {
+            threadCounts = toInts(line.getOptionValue("r"));
+        }
+        if (line.hasOption("n")) {
+            schemaBuilder.setMinColumns(Integer.parseInt(line.getOptionValue("n")));
+        }
+        if (line.hasOption("x")) {
+            schemaBuilder.setMaxColumns(Integer.parseInt(line.getOptionValue("x")));
+        }
+        if (schemaBuilder.getMinColumns() < 1 || schemaBuilder.getMaxColumns() < schemaBuilder.getMinColumns()) {
+            throw new ParseException("invalid column range: " + schemaBuilder.getMinColumns() + "-" + schemaBuilder.getMaxColumns());
+        }
+        if (line.hasOption("y")) {
+            schemaBuilder.setDistribution(SchemaBuilder.Distribution.valueOf(line.getOptionValue("y").toUpperCase(Locale.ROOT)));
+        }
+        if (line.hasOption("m")) {
+            schemaBuilder.setTypes(line.getOptionValue("m"));
+        }
+        if (line.hasOption("e")) {
+            schemaBuilder.setSeed(Long.parseLong(line.getOptionValue("e")));
+        }
+        if (line.hasOption("f")) {
+            schemaBuilder.setForeignKeys(Integer.parseInt(line.getOptionValue("f")));
+        }
+        keys = line.hasOption("k");
+        if (line.hasOption("w")) {
+            warmups = Integer.parseInt(line.getOptionValue("w"));
+        }
+        if (line.hasOption("i")) {
+            iterations = Integer.parseInt(line.getOptionValue("i"));
+        }
+        commit = line.hasOption("c") ? line.getOptionValue("c") : gitCommit();
+        if (line.hasOption("d")) {
+            outDir = Paths.get(line.getOptionValue("d"));
+        }
+        if (line.hasOption("o")) {
+            csv = Paths.get(line.getOptionValue("o"));
+        }
+        return true;
+    }
+
+    /**
+     * build the schema once per table count, then run every thread count against it
+     *
+     * @throws SQLException
+     * @throws IOException
+     */
+    protected void run() throws SQLException, IOException {
+        Log.setLevel(Log.Level.ERROR);
+
+        for (int tableCount : tableCounts) {
+            String url = "jdbc:h2:mem:bench" + tableCount + ";DB_CLOSE_DELAY=-1";
+            try (Connection conn = DriverManager.getConnection(url)) {
+                long millis = System.currentTimeMillis();
+                long columns = schemaBuilder.build(conn, tableCount);
+                info("created " + tableCount + " tables, " + columns + " columns (elapsed: " + (System.currentTimeMillis() - millis) + "ms)");
+
+                for (int i = 0; i < warmups; i++) {
+                    generate(conn, threadCounts[threadCounts.length - 1]);
+                }
+
+                for (int threads : threadCounts) {
+                    for (int i = 1; i <= iterations; i++) {
+                        GenerateResult result = generate(conn, threads);
+                        record(tableCount, threads, i, result);
+                    }
+                }
+
+                // drop the in-memory database before the next (bigger) schema
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("shutdown");
+                }
+            }
+        }
+        info("results appended to " + csv.toAbsolutePath());
+    }
+
+    /**
+     * one full pipeline run
+     *
+     * @param conn
+     * @param threads
+     * @return
+     */
+    private GenerateResult generate(final Connection conn, final int threads) {
+        UserPrefs prefs = new UserPrefs();
+        prefs.setAllTables(true);
+        prefs.setPkg("bench.pojo");
+        prefs.setDir(outDir.toString());
+        prefs.setNumThreads(threads);
+        prefs.setKeys(keys);
+
+        System.gc();
+        return Table2Pojo.generate(conn, prefs);
+    }
+
+    /**
+     * append result row, header is written for a new file
+     */
+    private void record(int tableCount, int threads, int iteration, GenerateResult result) throws IOException {
+        long elapsed = Math.max(1, result.getElapsedMillis());
+        String row = String.join(",", Arrays.asList(
+                commit,
+                System.getProperty("java.version"),
+                String.valueOf(tableCount),
+                schemaBuilder.getMinColumns() + "-" + schemaBuilder.getMaxColumns(),
+                schemaBuilder.getDistribution().name().toLowerCase(Locale.ROOT),
+                "\"" + schemaBuilder.getTypes() + "\"",
+                String.valueOf(schemaBuilder.getSeed()),
+                String.valueOf(schemaBuilder.getForeignKeys()),
+                String.valueOf(keys),
+                String.valueOf(threads),
+                String.valueOf(iteration),
+                String.valueOf(result.getElapsedMillis()),
+                String.format(Locale.ROOT, "%.1f", result.getTableCount() * 1000.0 / elapsed),
+                String.valueOf(result.getPeakHeapBytes() >> 20),
+                String.valueOf(result.getPhaseMillis(GenerateResult.Phase.ENUMERATE)),
+                String.valueOf(result.getPhaseMillis(GenerateResult.Phase.KEYS)),
+                String.valueOf(result.getPhaseMillis(GenerateResult.Phase.METADATA)),
+                String.valueOf(result.getPhaseMillis(GenerateResult.Phase.RENDER)),
+                String.valueOf(result.getPhaseMillis(GenerateResult.Phase.WRITE)),
+                String.valueOf(result.getErrors().size())));
+
+        if (csv.getParent() != null) {
+            Files.createDirectories(csv.getParent());
+        }
+        boolean header = !Files.exists(csv) || Files.size(csv) == 0;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (header) {
+                out.println(CSV_HEADER);
+            }
+            out.println(row);
+        }
+        info(tableCount + " tables, " + threads + " threads, run " + iteration + ": " + result.getElapsedMillis() + "ms, "
+                + (result.getPeakHeapBytes() >> 20) + "MB peak heap");
+    }
+
+    /**
+     * short commit id of the working tree, "unknown" outside of git
+     *
+     * @return
+     */
+    private String gitCommit() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                if (process.waitFor() == 0 && line != null) {
+                    return line.trim();
+                }
+            }
+        } catch (IOException e) {
+            // no git
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "unknown";
+    }
+
+    private int[] toInts(final String list) {
+        return Arrays.stream(list.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * info print, bypasses the log level used to silence the runs
+     *
+     * @param msg
+     */
+    private void info(String msg) {
+        Log.print(Log.Level.ERROR, "(bench) " + msg);
+    }
+}
@@ -18,27 +18,69 @@
  */
 package com.kumarvv.table2pojo;
 
+import com.kumarvv.table2pojo.core.ArchiveSink;
+import com.kumarvv.table2pojo.core.CheckSink;
+import com.kumarvv.table2pojo.core.ConnectionPool;
+import com.kumarvv.table2pojo.core.DdlWatcher;
+import com.kumarvv.table2pojo.core.FileSink;
+import com.kumarvv.table2pojo.core.HeapMonitor;
+import com.kumarvv.table2pojo.core.KeyReader;
+import com.kumarvv.table2pojo.core.Log;
+import com.kumarvv.table2pojo.core.PojoDeduplicator;
 import com.kumarvv.table2pojo.core.PojoWriter;
+import com.kumarvv.table2pojo.core.PojoWriterException;
+import com.kumarvv.table2pojo.core.PrefsValidator;
+import com.kumarvv.table2pojo.core.ProfileReader;
+import com.kumarvv.table2pojo.core.RegistryWriter;
+import com.kumarvv.table2pojo.core.RunContext;
 import com.kumarvv.table2pojo.core.TableReader;
+import com.kumarvv.table2pojo.core.TableScheduler;
+import com.kumarvv.table2pojo.core.TypeResolver;
+import com.kumarvv.table2pojo.jfr.Recorder;
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.Profile;
 import com.kumarvv.table2pojo.model.UserPrefs;
 import org.apache.commons.cli.*;
-import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 
+
+import javax.sql.DataSource;
 import java.io.File;
 import java.io.FileInputStream;
 import java.nio.file.Paths;
 import java.sql.Connection;
+import java.sql.Driver;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
 import java.util.stream.IntStream;
 
 public class Table2Pojo {
 
+    private static final int QUEUE_SIZE_PER_THREAD = 4;
+
+    private static final long MAX_WATCH_BACKOFF_MILLIS = 60000;
+
+    // opens additional connections for the scheduler (-n), null to share the main connection
+    private Callable<Connection> connector;
+
     /**
      * construct and initialize que
      */
@@ -50,35 +92,346 @@ public class Table2Pojo {
      * @param args
      */
     public static void main(String[] args) {
-        new Table2Pojo().process(args);
+        int status = new Table2Pojo().process(args);
+        if (status != 0) {
+            System.exit(status);
+        }
     }
 
     /**
      * process
      * @param args
+     * @return exit status, non-zero if check mode found differences
      */
-    private void process(String[] args) {
+    private int process(String[] args) {
         UserPrefs prefs = buildOptions(args);
         if (prefs == null) {
-            return;
+            return 0;
         }
 
         if (!validate(prefs)) {
-            return;
+            return 2;
+        }
+
+        if (prefs.getJfr() != null && !startRecording(prefs.getJfr())) {
+            return 2;
+        }
+
+        if (prefs.getProfiles() != null) {
+            return processProfiles(prefs);
         }
 
         long millis = System.currentTimeMillis();
 
         info("connecting to database...");
+        connector = this::connect;
         try (Connection conn = connect()) {
             millis = System.currentTimeMillis();
             info("processing tables...");
-            start(prefs, conn);
+
+            final RunContext context = new RunContext(null);
+            context.setConnector(connector);
+
+            DdlWatcher watcher = null;
+            if (prefs.getWatchMillis() > 0) {
+                watcher = new DdlWatcher(prefs, conn);
+                if (prefs.isKeys()) {
+                    // kept between polls, only the keys of changed tables are reloaded
+                    context.setKeys(loadKeys(prefs, conn, context));
+                    watcher.setKeys(context.getKeys());
+                }
+                watcher.poll();
+            }
+
+            GenerateResult result = start(prefs, conn, context);
+
+            if (watcher != null) {
+                watch(prefs, conn, watcher, context.getKeys());
+            }
+
+            if (prefs.isCheck()) {
+                return report(result);
+            }
+            return 0;
         } catch (Exception e) {
             error(e.getMessage());
+            return 2;
         } finally {
             long elapsed = System.currentTimeMillis() -millis;
             info("ALL DONE! (elapsed: " + elapsed + "ms)");
+            Log.shutdown();
+        }
+    }
+
+    /**
+     * run all profiles of the profiles file concurrently, under the global worker budget and the
+     * connection caps per database
+     * @param prefs command line options, defaults of the profiles
+     * @return exit status, 2 if a profile failed, 1 if check mode found differences
+     */
+    private int processProfiles(final UserPrefs prefs) {
+        long millis = System.currentTimeMillis();
+
+        final ProfileReader profileReader = new ProfileReader(prefs);
+        try {
+            profileReader.read(Paths.get(prefs.getProfiles()));
+        } catch (PojoWriterException e) {
+            error(e.getMessage());
+            return 2;
+        }
+        final List<Profile> profiles = profileReader.getProfiles();
+
+        // profiles with the same url share the connections of the database, smallest cap wins
+        final Map<String, Integer> caps = new HashMap<>();
+        profiles.forEach(p -> caps.merge(p.getDb().getProperty("url"), p.getMaxConnections(), Math::min));
+        final Map<String, Semaphore> connections = new HashMap<>();
+        caps.forEach((url, cap) -> connections.put(url, new Semaphore(cap, true)));
+
+        final Semaphore workers = new Semaphore(profileReader.getWorkers(), true);
+        info("running " + profiles.size() + " profiles, " + profileReader.getWorkers() + " workers, "
+                + connections.size() + " databases");
+
+        final HeapMonitor heap = new HeapMonitor();
+        heap.reset();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(profiles.size());
+        final Map<String, Future<GenerateResult>> futures = new LinkedHashMap<>();
+        profiles.forEach(profile -> futures.put(profile.getName(), executor.submit(() ->
+                runProfile(profile, connections.get(profile.getDb().getProperty("url")),
+                        caps.get(profile.getDb().getProperty("url")), workers))));
+        executor.shutdown();
+
+        final Map<String, GenerateResult> results = new LinkedHashMap<>();
+        final Map<String, String> failures = new LinkedHashMap<>();
+        futures.forEach((name, future) -> {
+            try {
+                results.put(name, future.get());
+            } catch (ExecutionException e) {
+                failures.put(name, e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                failures.put(name, "interrupted");
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        int status = reportProfiles(prefs, results, failures);
+        info("ALL DONE! (elapsed: " + (System.currentTimeMillis() - millis) + "ms, peak heap: " + (heap.getPeakBytes() >> 20) + "MB)");
+        Log.shutdown();
+        return status;
+    }
+
+    /**
+     * generate one profile, waits for a connection slot of its database
+     * @param profile
+     * @param connections connection slots of the database
+     * @param workers global worker budget
+     * @return result of the profile
+     */
+    private GenerateResult runProfile(final Profile profile, final Semaphore connections, final int cap,
+                                      final Semaphore workers) throws Exception {
+        // scheduler connections count against the cap of the database as well
+        UserPrefs prefs = profile.getPrefs();
+        final int permits = prefs.getConnections() > 0 ? Math.min(cap, 1 + prefs.getConnections()) : 1;
+
+        connections.acquire(permits);
+        try (Connection conn = connect(profile.getDb())) {
+            final RunContext context = new RunContext(profile.getName());
+            context.setWorkers(workers);
+            if (permits > 1) {
+                prefs = prefs.copy(null);
+                prefs.setConnections(permits - 1);
+                context.setConnector(() -> connect(profile.getDb()));
+            }
+            return start(prefs, conn, context);
+        } finally {
+            connections.release(permits);
+        }
+    }
+
+    /**
+     * combined report of all profiles
+     * @param prefs
+     * @param results results of the completed profiles
+     * @param failures error message of the failed profiles
+     * @return exit status, 2 if a profile failed, 1 if check mode found differences
+     */
+    private int reportProfiles(final UserPrefs prefs, final Map<String, GenerateResult> results, final Map<String, String> failures) {
+        final String format = "%-20s %8s %8s %8s %10s  %s";
+        Log.print(Log.Level.ERROR, "--------------------------------------------");
+        Log.print(Log.Level.ERROR, String.format(format, "profile", "tables", "files", "errors", "elapsed", "status"));
+
+        int tables = 0;
+        int files = 0;
+        int errors = 0;
+        int status = 0;
+        for (Map.Entry<String, GenerateResult> entry : results.entrySet()) {
+            GenerateResult result = entry.getValue();
+            String state = result.isSuccess() ? "OK" : "ERRORS";
+            if (prefs.isCheck() && !result.isUpToDate()) {
+                state = "CHANGED (" + result.getAdded().size() + " added, " + result.getChanged().size() + " changed, "
+                        + result.getRemoved().size() + " removed)";
+                status = Math.max(status, 1);
+            }
+            Log.print(result.isSuccess() ? Log.Level.INFO : Log.Level.ERROR, String.format(format, entry.getKey(),
+                    result.getTableCount(), result.getFileCount(), result.getErrors().size(), result.getElapsedMillis() + "ms", state));
+            result.getErrors().forEach((table, msg) -> Log.print(Log.Level.ERROR, "  " + entry.getKey() + "/" + table + ": " + msg));
+
+            tables += result.getTableCount();
+            files += result.getFileCount();
+            errors += result.getErrors().size();
+        }
+        for (Map.Entry<String, String> entry : failures.entrySet()) {
+            Log.print(Log.Level.ERROR, String.format(format, entry.getKey(), "-", "-", "-", "-", "FAILED: " + entry.getValue()));
+            status = 2;
+        }
+
+        Log.print(Log.Level.ERROR, String.format(format, "total", tables, files, errors, "",
+                results.size() + "/" + (results.size() + failures.size()) + " profiles completed"));
+        return status;
+    }
+
+    /**
+     * start a flight recording with the default settings and the table2pojo events,
+     * written to the file when the JVM exits
+     * @param file
+     * @return false if the recording could not be started
+     */
+    private boolean startRecording(final String file) {
+        try {
+            Recorder.start(Paths.get(file));
+            info("flight recording started, written to " + Paths.get(file).toAbsolutePath() + " at exit");
+            return true;
+        } catch (Exception | LinkageError e) {
+            error("could not start flight recording: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * print differences found in check mode
+     * @param result
+     * @return exit status, 1 if generated sources differ from the existing files
+     */
+    private int report(final GenerateResult result) {
+        if (result.isUpToDate() && result.isSuccess()) {
+            info("CHECK OK: generated sources are up to date");
+            return 0;
+        }
+
+        result.getAdded().forEach(f -> Log.print(Log.Level.ERROR, "  added:   " + f));
+        result.getChanged().forEach(f -> Log.print(Log.Level.ERROR, "  changed: " + f));
+        result.getRemoved().forEach(f -> Log.print(Log.Level.ERROR, "  removed: " + f));
+        error("CHECK FAILED: " + result.getAdded().size() + " added, " + result.getChanged().size() + " changed, "
+                + result.getRemoved().size() + " removed, " + result.getErrors().size() + " errors");
+        return 1;
+    }
+
+    /**
+     * poll for DDL changes and regenerate the changed tables, until interrupted. when polling
+     * fails (e.g. connection lost), waits with an increasing back off and reconnects
+     * @param prefs
+     * @param conn
+     * @param watcher
+     * @param keys keys of the first run, null without keys
+     */
+    protected void watch(final UserPrefs prefs, final Connection conn, final DdlWatcher watcher,
+                         final KeyReader keys) throws Exception {
+        info("watching for DDL changes every " + prefs.getWatchMillis() + "ms...");
+        Connection current = conn;
+        long backoff = prefs.getWatchMillis();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(prefs.getWatchMillis());
+                } catch (InterruptedException ie) {
+                    break;
+                }
+
+                Set<String> changed;
+                try {
+                    changed = watcher.poll();
+                    backoff = prefs.getWatchMillis();
+                } catch (SQLException e) {
+                    error("polling for DDL changes failed, reconnecting in " + backoff + "ms: " + e.getMessage());
+                    try {
+                        Thread.sleep(backoff);
+                    } catch (InterruptedException ie) {
+                        break;
+                    }
+                    backoff = Math.min(backoff * 2, MAX_WATCH_BACKOFF_MILLIS);
+                    current = reconnect(current, conn);
+                    watcher.setConnection(current);
+                    continue;
+                }
+                if (changed.isEmpty()) {
+                    continue;
+                }
+
+                long millis = System.currentTimeMillis();
+                info("changed tables: " + changed);
+
+                GenerateResult result = refresh(prefs, current, changed, keys);
+                if (!result.getErrors().isEmpty()) {
+                    watcher.retry(result.getErrors().keySet());
+                }
+                info("regenerated (elapsed: " + (System.currentTimeMillis() - millis) + "ms)");
+            }
+        } finally {
+            if (current != conn) {
+                closeQuietly(current);
+            }
+        }
+    }
+
+    /**
+     * regenerate the changed tables. the keys of the whole table selection are kept between runs,
+     * so reference fields to tables that did not change are kept, only the changed tables are reloaded
+     * @param prefs
+     * @param conn
+     * @param changed
+     * @param keys
+     * @return
+     */
+    private GenerateResult refresh(final UserPrefs prefs, final Connection conn, final Set<String> changed,
+                                   final KeyReader keys) {
+        final RunContext context = new RunContext(null);
+        context.setConnector(connector);
+        if (keys != null) {
+            long keysStart = System.nanoTime();
+            keys.reload(conn, changed);
+            context.getResult().addPhaseNanos(GenerateResult.Phase.KEYS, System.nanoTime() - keysStart);
+            context.setKeys(keys);
+        }
+
+        // deduplicated groups depend on all tables, regenerate everything
+        return start(prefs.isDedup() ? prefs : prefs.copy(changed.toArray(new String[0])), conn, context);
+    }
+
+    /**
+     * new connection for the watcher, the failed one is closed (unless it is the main connection,
+     * closed by the caller). the failed connection is kept if connecting fails, polling fails again
+     * @param failed
+     * @param main
+     * @return
+     */
+    private Connection reconnect(final Connection failed, final Connection main) {
+        try {
+            Connection conn = connect();
+            if (failed != main) {
+                closeQuietly(failed);
+            }
+            info("reconnected to database");
+            return conn;
+        } catch (Exception e) {
+            error("could not reconnect to database: " + e.getMessage());
+            return failed;
+        }
+    }
+
+    private void closeQuietly(final Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
         }
     }
 
@@ -95,6 +448,23 @@ public class Table2Pojo {
             options.addOption("p", "pkg", true, "(optional) java package name of the POJOs. If not specified, default/blank package will be used");
             options.addOption("d", "dir", true, "(optional) target directory where POJOs (.Java files) are generated. If not specified, current directory will be used");
             options.addOption("r", "threads", true, "(optional) number of concurrent threads, default 5");
+            options.addOption("g", "registry", false, "(optional) also generate " + RegistryWriter.REGISTRY_CLASS + " class with static table/column lookups");
+            options.addOption("u", "dedup", false, "(optional) generate shared base classes for structurally identical tables");
+            options.addOption("k", "keys", false, "(optional) annotate primary key fields with @Id and generate reference fields for foreign keys");
+            options.addOption("i", "id", true, "(optional) annotation of primary key fields with `k`: javax (default), jakarta or none");
+            options.addOption("w", "watch", true, "(optional) keep running and regenerate changed tables, polling for DDL changes every given seconds");
+            options.addOption("m", "low-memory", false, "(optional) bounded memory for very large catalogs: bounded table queue, compact columns, counts only in the result");
+            options.addOption("c", "check", false, "(optional) compare generated sources with the existing files without writing, exit with status 1 if they differ");
+            options.addOption("q", "quiet", false, "(optional) print errors only");
+            options.addOption("j", "json", false, "(optional) print log lines as JSON objects");
+            options.addOption("s", "progress", true, "(optional) print a progress line (tables/sec, ETA) every given seconds");
+            options.addOption("z", "archive", true, "(optional) write all POJOs into one zip/jar file (e.g. pojos-sources.jar) instead of the target directory");
+            options.addOption("x", "compression", true, "(optional) compression level of the archive, 0 (stored) to 9, default 6");
+            options.addOption("y", "types", true, "(optional) type mapping rules file, rules are tried in order before the default mapping");
+            options.addOption("n", "connections", true, "(optional) schedule one task per table over the given number of connections, on virtual threads with java 21+. replaces the `r` threads");
+            options.addOption("f", "profiles", true, "(optional) profiles file, generate from all its databases concurrently. other options are the defaults of the profiles");
+            options.addOption(Option.builder().longOpt("jfr").hasArg().argName("file")
+                    .desc("(optional) record table2pojo and JVM events with Java Flight Recorder, written to the file at exit").build());
             options.addOption("h", "help", false, "print help");
 
             CommandLineParser parser = new DefaultParser();
@@ -106,6 +476,14 @@ public class Table2Pojo {
                 return null;
             }
 
+            if (line.hasOption("q")) {
+                Log.setLevel(Log.Level.ERROR);
+            }
+            Log.setJson(line.hasOption("j"));
+            if (line.hasOption("s")) {
+                Log.setProgressMillis((long) (Double.parseDouble(line.getOptionValue("s")) * 1000));
+            }
+
             UserPrefs prefs = new UserPrefs();
             if (line.hasOption("a")) {
                 prefs.setAllTables(true);
@@ -132,7 +510,77 @@ public class Table2Pojo {
             }
             info("numThreads=" + prefs.getNumThreads());
 
-            System.out.println("--------------------------------------------");
+            if (line.hasOption("g")) {
+                prefs.setRegistry(true);
+                info("registry=" + RegistryWriter.REGISTRY_CLASS);
+            }
+
+            if (line.hasOption("u")) {
+                prefs.setDedup(true);
+                info("dedup=true");
+            }
+
+            if (line.hasOption("k")) {
+                prefs.setKeys(true);
+                info("keys=true");
+            }
+
+            if (line.hasOption("i")) {
+                prefs.setIdAnnotation(line.getOptionValue("i"));
+                info("id=" + prefs.getIdAnnotation());
+            }
+
+            if (line.hasOption("m")) {
+                prefs.setLowMemory(true);
+                info("lowMemory=true");
+            }
+
+            if (line.hasOption("c")) {
+                prefs.setCheck(true);
+                info("check=true");
+            }
+
+            if (line.hasOption("w")) {
+                prefs.setWatchMillis((long) (Double.parseDouble(line.getOptionValue("w")) * 1000));
+                info("watch=" + prefs.getWatchMillis() + "ms");
+            }
+
+            if (line.hasOption("z")) {
+                prefs.setArchive(line.getOptionValue("z"));
+                info("archive=" + prefs.getArchive());
+            }
+
+            if (line.hasOption("x")) {
+                prefs.setCompression(Integer.valueOf(line.getOptionValue("x")));
+                info("compression=" + prefs.getCompression());
+            }
+
+            if (line.hasOption("y")) {
+                prefs.setTypeRules(line.getOptionValue("y"));
+                info("types=" + prefs.getTypeRules());
+            }
+
+            if (line.hasOption("n")) {
+                int connections = Integer.parseInt(line.getOptionValue("n"));
+                if (connections < 1) {
+                    // 0 is "no scheduler" internally, a given -n 0 must not fall back to the writer threads
+                    throw new ParseException("connections must be 1 or more");
+                }
+                prefs.setConnections(connections);
+                info("connections=" + prefs.getConnections());
+            }
+
+            if (line.hasOption("f")) {
+                prefs.setProfiles(line.getOptionValue("f"));
+                info("profiles=" + prefs.getProfiles());
+            }
+
+            if (line.hasOption("jfr")) {
+                prefs.setJfr(line.getOptionValue("jfr"));
+                info("jfr=" + prefs.getJfr());
+            }
+
+            Log.print(Log.Level.INFO, "--------------------------------------------");
             return prefs;
 
         } catch (Exception e) {
@@ -152,8 +600,20 @@ public class Table2Pojo {
             return false;
         }
 
-        if (!prefs.isAllTables() && ArrayUtils.isEmpty(prefs.getTables())) {
-            error("choose \"all\" or \"tables\" option with list of tables");
+        if (prefs.getProfiles() != null && prefs.getWatchMillis() > 0) {
+            error("profiles and watch can not be combined");
+            return false;
+        }
+
+        if (prefs.getProfiles() != null) {
+            // defaults of the profiles, each merged profile is validated when the file is read
+            return true;
+        }
+
+        try {
+            PrefsValidator.validate(prefs);
+        } catch (PojoWriterException e) {
+            error(e.getMessage());
             return false;
         }
 
@@ -161,22 +621,49 @@ public class Table2Pojo {
     }
 
     /**
-     * connect
+     * connect, using only the configured driver class. DriverManager would load and initialize
+     * every driver bundled in the jar (service loader) before connecting.
      * @return
      * @throws Exception
      */
     private Connection connect() throws Exception {
         Properties props = new Properties();
-        props.load(new FileInputStream(getDbProperties()));
+        try (FileInputStream in = new FileInputStream(getDbProperties())) {
+            props.load(in);
+        }
+        return connect(props);
+    }
 
+    /**
+     * connect using connection properties: driver, url, username, password
+     * @param props
+     * @return
+     * @throws Exception
+     */
+    private Connection connect(final Properties props) throws Exception {
         String driver = props.getProperty("driver");
         String url = props.getProperty("url");
         String username = props.getProperty("username");
         String password = props.getProperty("password");
 
-        Class.forName(driver);
+        if (StringUtils.isBlank(driver)) {
+            return DriverManager.getConnection(url, username, password);
+        }
 
-        return DriverManager.getConnection(url, username, password);
+        Properties info = new Properties();
+        if (username != null) {
+            info.setProperty("user", username);
+        }
+        if (password != null) {
+            info.setProperty("password", password);
+        }
+
+        Driver jdbcDriver = (Driver) Class.forName(driver).getDeclaredConstructor().newInstance();
+        Connection conn = jdbcDriver.connect(url, info);
+        if (conn == null) {
+            throw new SQLException("driver " + driver + " does not accept url: " + url);
+        }
+        return conn;
     }
 
     /**
@@ -195,28 +682,159 @@ public class Table2Pojo {
         return f.getAbsolutePath();
     }
 
+    /**
+     * generate pojos using a connection of the data source, for embedding table2pojo in other tools
+     * @param dataSource
+     * @param prefs
+     * @return result with generated tables, files and errors
+     * @throws SQLException
+     */
+    public static GenerateResult generate(final DataSource dataSource, final UserPrefs prefs) throws SQLException {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("dataSource is required");
+        }
+        checkPrefs(prefs);
+        try (Connection conn = dataSource.getConnection()) {
+            Table2Pojo table2Pojo = new Table2Pojo();
+            table2Pojo.connector = dataSource::getConnection;
+            return table2Pojo.start(prefs, conn);
+        }
+    }
+
+    /**
+     * generate pojos using the given connection, the connection is not closed.
+     * with the scheduler (connections option) all tables share this connection
+     * @param conn
+     * @param prefs
+     * @return result with generated tables, files and errors
+     */
+    public static GenerateResult generate(final Connection conn, final UserPrefs prefs) {
+        if (conn == null) {
+            throw new IllegalArgumentException("connection is required");
+        }
+        checkPrefs(prefs);
+        return new Table2Pojo().start(prefs, conn);
+    }
+
+    /**
+     * validate preferences of the API calls
+     * @param prefs
+     */
+    private static void checkPrefs(final UserPrefs prefs) {
+        try {
+            PrefsValidator.validate(prefs);
+        } catch (PojoWriterException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
     /**
      * start process
      * @param prefs
      * @param conn
+     * @return result of the run
+     */
+    protected GenerateResult start(final UserPrefs prefs, final Connection conn) {
+        final RunContext context = new RunContext(null);
+        context.setConnector(connector);
+        return start(prefs, conn, context);
+    }
+
+    /**
+     * connections of the scheduler, opened with the connector of the context. without connector,
+     * or if opening fails, the tables share the main connection
+     * @param prefs
+     * @param conn main connection
+     * @param context
+     * @return
+     */
+    private ConnectionPool openPool(final UserPrefs prefs, final Connection conn, final RunContext context) {
+        if (context.getConnector() == null) {
+            return new ConnectionPool(Collections.singletonList(conn), false);
+        }
+
+        final List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < prefs.getConnections(); i++) {
+                connections.add(context.getConnector().call());
+            }
+            return new ConnectionPool(connections, true);
+        } catch (Exception e) {
+            if (!connections.isEmpty()) {
+                new ConnectionPool(connections, true).close();
+            }
+            Log.error(context.getName(), "could not open " + prefs.getConnections() + " connections, sharing the main connection: " + e.getMessage());
+            return new ConnectionPool(Collections.singletonList(conn), false);
+        }
+    }
+
+    /**
+     * start process within the given context
+     * @param prefs
+     * @param conn
+     * @param context named context when running several profiles
+     * @return result of the run
      */
-    protected void start(final UserPrefs prefs, final Connection conn) {
+    protected GenerateResult start(final UserPrefs prefs, final Connection conn, final RunContext context) {
         if (prefs == null || conn == null) {
-            return;
+            return context.getResult();
+        }
+        try {
+            context.setTypes(TypeResolver.load(prefs.getTypeRules()));
+        } catch (PojoWriterException e) {
+            context.getResult().addError("types", e.getMessage());
+            Log.error(context.getName(), e.getMessage());
+            return context.getResult();
+        }
+
+        if (prefs.isCheck()) {
+            context.setSink(new CheckSink(prefs, context.getResult()));
+        } else if (prefs.getArchive() != null) {
+            context.setSink(new ArchiveSink(prefs));
+        } else {
+            context.setSink(new FileSink(prefs));
         }
 
-        final BlockingQueue<String> queue = new LinkedBlockingDeque<>();
+        long millis = System.currentTimeMillis();
+        final HeapMonitor heap = new HeapMonitor();
+        if (context.getName() == null) {
+            // concurrent profiles share the heap, peak is measured over all of them
+            heap.reset();
+        }
+        Log.track(context.getProgress());
+
+        final BlockingQueue<String> queue;
+        if (prefs.isLowMemory()) {
+            queue = new ArrayBlockingQueue<>(Math.max(prefs.getNumThreads(), prefs.getConnections()) * QUEUE_SIZE_PER_THREAD);
+            context.getResult().setDetailed(false);
+        } else {
+            queue = new LinkedBlockingDeque<>();
+        }
 
-        TableReader reader = new TableReader(prefs, conn, queue);
-        reader.setName("reader");
+        TableReader reader = new TableReader(prefs, conn, queue, context);
         reader.start();
 
-        final List<PojoWriter> writers = new ArrayList<>();
-        IntStream.range(0, prefs.getNumThreads()).forEach(i -> {
-            writers.add(new PojoWriter(prefs, conn, queue, i));
-        });
+        if (prefs.isRegistry()) {
+            context.setRegistry(new RegistryWriter(prefs, context.getSink()));
+        }
+        if (prefs.isDedup()) {
+            context.setDedup(new PojoDeduplicator(prefs, context));
+        }
+        if (prefs.isKeys() && context.getKeys() == null) {
+            context.setKeys(loadKeys(prefs, conn, context));
+        }
 
-        writers.forEach(Thread::start);
+        final List<PojoWriter> writers = new ArrayList<>();
+        if (prefs.getConnections() > 0) {
+            try (ConnectionPool pool = openPool(prefs, conn, context)) {
+                new TableScheduler(prefs, queue, context, pool).run();
+            }
+        } else {
+            IntStream.range(0, prefs.getNumThreads()).forEach(i -> {
+                writers.add(new PojoWriter(prefs, conn, queue, i, context));
+            });
+            writers.forEach(Thread::start);
+        }
 
         try {
             reader.join();
@@ -228,6 +846,51 @@ public class Table2Pojo {
             } catch (InterruptedException ie) {
             }
         });
+
+        if (context.getDedup() != null) {
+            Log.info(context.getName(), "generated " + context.getDedup().generate(context.getResult()).size() + " deduplicated pojo files");
+        }
+
+        if (context.getRegistry() != null) {
+            try {
+                String registryPath = context.getRegistry().write();
+                context.getResult().addFile(registryPath);
+                Log.info(context.getName(), "generated registry file: " + registryPath + " (tables in this run: " + context.getRegistry().size() + ")");
+            } catch (PojoWriterException e) {
+                context.getResult().addError(RegistryWriter.REGISTRY_CLASS, e.getMessage());
+                Log.error(context.getName(), e.getMessage());
+            }
+        }
+
+        try {
+            context.getSink().close();
+        } catch (PojoWriterException e) {
+            context.getResult().addError("sink", e.getMessage());
+            Log.error(context.getName(), e.getMessage());
+        }
+
+        Log.untrack(context.getProgress());
+        context.getResult().setElapsedMillis(System.currentTimeMillis() - millis);
+        context.getResult().setPeakHeapBytes(heap.getPeakBytes());
+        Log.info(context.getName(), "generated " + context.getResult().getTableCount() + " tables, " + context.getResult().getErrors().size()
+                + " errors (peak heap: " + (heap.getPeakBytes() >> 20) + "MB, heap in use: " + (heap.getUsedBytes() >> 20)
+                + "MB, interned strings: " + context.getInterner().size() + ")");
+        return context.getResult();
+    }
+
+    /**
+     * keys of the selected tables
+     * @param prefs
+     * @param conn
+     * @param context
+     * @return
+     */
+    private KeyReader loadKeys(final UserPrefs prefs, final Connection conn, final RunContext context) {
+        long keysStart = System.nanoTime();
+        KeyReader keys = new KeyReader(prefs);
+        keys.load(conn);
+        context.getResult().addPhaseNanos(GenerateResult.Phase.KEYS, System.nanoTime() - keysStart);
+        return keys;
     }
 
     /**
@@ -235,7 +898,7 @@ public class Table2Pojo {
      * @param msg
      */
     private void error(String msg) {
-        System.out.println("ERROR: " + msg);
+        Log.error(null, msg);
     }
 
     /**
@@ -243,6 +906,6 @@ public class Table2Pojo {
      * @param msg
      */
     private void info(String msg) {
-        System.out.println("INFO: " + msg);
+        Log.info(null, msg);
     }
 }
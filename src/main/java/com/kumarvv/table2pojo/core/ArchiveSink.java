@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.jfr.Recorder;
+import com.kumarvv.table2pojo.model.UserPrefs;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * writes all generated sources into one zip (or source jar) instead of one file per table.
+ *
+ * entries are collected from the writer threads and written sorted by name with a fixed timestamp
+ * when the run is done, so the archive is byte-identical for identical sources. the archive is
+ * written to a temp file next to it and moved into place, so readers never see a partial archive.
+ * runs for a subset of tables keep the other entries of the existing archive, like the files of
+ * the target directory.
+ */
+public class ArchiveSink extends PojoSink {
+
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+    private static final String MANIFEST = "META-INF/MANIFEST.MF";
+
+    private final Path archive;
+    private final String pkgPath;
+    private final Map<String, byte[]> entries = new ConcurrentSkipListMap<>();
+
+    public ArchiveSink(final UserPrefs prefs) {
+        super(prefs);
+        this.archive = Paths.get(prefs.getArchive()).toAbsolutePath().normalize();
+        this.pkgPath = getPkg(prefs).replace('.', '/') + "/";
+    }
+
+    @Override
+    public String write(final String fileName, final String content) throws PojoWriterException {
+        String name = pkgPath + fileName;
+        entries.put(name, content.getBytes(StandardCharsets.UTF_8));
+        return archive + "!/" + name;
+    }
+
+    /**
+     * entry of the existing archive
+     */
+    @Override
+    public String read(final String fileName) throws PojoWriterException {
+        if (!Files.exists(archive)) {
+            return null;
+        }
+
+        try (ZipFile zip = new ZipFile(archive.toFile(), StandardCharsets.UTF_8)) {
+            ZipEntry entry = zip.getEntry(pkgPath + fileName);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = zip.getInputStream(entry)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new PojoWriterException("could not read " + fileName + " from archive " + archive + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isBuffered() {
+        return true;
+    }
+
+    @Override
+    public void close() throws PojoWriterException {
+        if (!prefs.isAllTables()) {
+            keepExisting();
+        }
+
+        final Object event = Recorder.beginWritten();
+        final Path tmp = archive.resolveSibling(archive.getFileName() + ".tmp");
+        try {
+            if (archive.getParent() != null) {
+                Files.createDirectories(archive.getParent());
+            }
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp));
+                 ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8)) {
+                zip.setLevel(prefs.getCompression());
+
+                if (archive.getFileName().toString().endsWith(".jar")) {
+                    putEntry(zip, MANIFEST, "Manifest-Version: 1.0\r\nCreated-By: table2pojo\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+                }
+
+                // package directories, then the sources
+                StringBuilder dir = new StringBuilder();
+                for (String part : getPkg(prefs).split("\\.")) {
+                    dir.append(part).append('/');
+                    putEntry(zip, dir.toString(), new byte[0]);
+                }
+                for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                    putEntry(zip, entry.getKey(), entry.getValue());
+                }
+            }
+
+            Files.move(tmp, archive, StandardCopyOption.REPLACE_EXISTING);
+            Recorder.commitWritten(event, archive.toString(), Files.size(archive), false);
+            info("wrote " + entries.size() + " files to " + archive + " (" + (Files.size(archive) >> 10) + "KB)");
+
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+            }
+            throw new PojoWriterException("could not write archive " + archive + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * add the entries of the existing archive not generated in this run
+     *
+     * @throws PojoWriterException
+     */
+    private void keepExisting() throws PojoWriterException {
+        if (!Files.exists(archive)) {
+            return;
+        }
+
+        try (ZipFile zip = new ZipFile(archive.toFile(), StandardCharsets.UTF_8)) {
+            Enumeration<? extends ZipEntry> existing = zip.entries();
+            while (existing.hasMoreElements()) {
+                ZipEntry entry = existing.nextElement();
+                if (entry.isDirectory() || MANIFEST.equals(entry.getName()) || entries.containsKey(entry.getName())) {
+                    continue;
+                }
+                try (InputStream in = zip.getInputStream(entry)) {
+                    entries.put(entry.getName(), in.readAllBytes());
+                }
+            }
+        } catch (IOException e) {
+            throw new PojoWriterException("could not read archive " + archive + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * add entry, stored (with precomputed crc) if compression level is 0
+     *
+     * @param zip
+     * @param name
+     * @param content
+     * @throws IOException
+     */
+    private void putEntry(final ZipOutputStream zip, final String name, final byte[] content) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTimeLocal(ENTRY_TIME);
+        if (prefs.getCompression() == Deflater.NO_COMPRESSION || content.length == 0) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    /**
+     * info print
+     *
+     * @param msg
+     */
+    private void info(String msg) {
+        Log.info("archive", msg);
+    }
+}
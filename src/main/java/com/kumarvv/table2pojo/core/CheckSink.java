@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.UserPrefs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * compares generated sources with the files in the package directory instead of writing them.
+ * comparisons run in the calling writer threads. files not generated in the run are reported
+ * as removed, only when all tables are generated.
+ */
+public class CheckSink extends PojoSink {
+
+    private final GenerateResult result;
+    private final Set<String> generated = ConcurrentHashMap.newKeySet();
+
+    public CheckSink(final UserPrefs prefs, final GenerateResult result) {
+        super(prefs);
+        this.result = result;
+    }
+
+    @Override
+    public String write(final String fileName, final String content) throws PojoWriterException {
+        Path targetFile = targetDir.resolve(fileName);
+        generated.add(fileName);
+
+        try {
+            if (!Files.exists(targetFile)) {
+                result.addAdded(fileName);
+            } else if (!Arrays.equals(Files.readAllBytes(targetFile), content.getBytes(StandardCharsets.UTF_8))) {
+                result.addChanged(fileName);
+            }
+        } catch (IOException e) {
+            throw new PojoWriterException("could not read pojo file: " + e.getMessage());
+        }
+
+        return targetFile.toString();
+    }
+
+    @Override
+    public void close() throws PojoWriterException {
+        if (!prefs.isAllTables() || !Files.isDirectory(targetDir)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(targetDir, "*.java")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                if (!generated.contains(fileName)) {
+                    result.addRemoved(fileName);
+                }
+            }
+        } catch (IOException e) {
+            throw new PojoWriterException("could not list pojo directory: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * fixed set of connections handed out to one table task at a time, acquire blocks while all are in use
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final List<Connection> connections;
+    private final BlockingQueue<Connection> idle;
+    private final boolean owned;
+
+    /**
+     * @param connections
+     * @param owned true to close the connections with the pool
+     */
+    public ConnectionPool(final List<Connection> connections, final boolean owned) {
+        if (connections == null || connections.isEmpty()) {
+            throw new IllegalArgumentException("connections are required");
+        }
+        this.connections = new ArrayList<>(connections);
+        this.idle = new ArrayBlockingQueue<>(connections.size(), false, connections);
+        this.owned = owned;
+    }
+
+    public Connection acquire() throws InterruptedException {
+        return idle.take();
+    }
+
+    public void release(final Connection conn) {
+        idle.offer(conn);
+    }
+
+    public int size() {
+        return connections.size();
+    }
+
+    @Override
+    public void close() {
+        if (!owned) {
+            return;
+        }
+        for (Connection conn : connections) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                Log.error("pool", "could not close connection: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * polls a cheap DDL change indicator per table and reports the tables changed since the last poll.
+ *
+ * oracle exposes LAST_DDL_TIME (also changed by adding or dropping constraints); for other databases
+ * a fingerprint of the column definitions (name, type, length, precision, scale) from information_schema
+ * is used, since their table statistics (pg_stat_user_tables, UPDATE_TIME) track data changes rather
+ * than DDL. with keys, the primary and foreign keys of the tables are part of the fingerprint.
+ *
+ * changed tables are reported with the names given by the user (tables option), not in catalog case.
+ */
+public class DdlWatcher {
+
+    private static final String SQL_ORACLE = "select object_name, to_char(last_ddl_time, 'YYYYMMDDHH24MISS') "
+            + "from user_objects where object_type = 'TABLE'";
+
+    private static final String SQL_INFORMATION_SCHEMA = "select table_name, column_name, data_type, character_maximum_length, "
+            + "numeric_precision, numeric_scale "
+            + "from information_schema.columns where table_schema = ? "
+            + "order by table_name, ordinal_position";
+
+    private Connection conn;
+    private final Map<String, String> tables = new HashMap<>();
+    private Map<String, Long> snapshot;
+    private Boolean oracle;
+    private KeyReader keys;
+
+    /**
+     * requires connection
+     *
+     * @param prefs
+     * @param conn
+     */
+    public DdlWatcher(final UserPrefs prefs, final Connection conn) {
+        this.conn = conn;
+        if (!prefs.isAllTables() && prefs.getTables() != null) {
+            Arrays.stream(prefs.getTables()).forEach(t -> tables.put(normalize(t), t.trim()));
+        }
+    }
+
+    /**
+     * tables added or changed since the previous poll, first poll only takes the baseline
+     *
+     * @return
+     * @throws SQLException
+     */
+    public Set<String> poll() throws SQLException {
+        final Map<String, Long> current = readSnapshot();
+        final Set<String> changed = new TreeSet<>();
+
+        if (snapshot != null) {
+            current.forEach((table, marker) -> {
+                if (!marker.equals(snapshot.get(table))) {
+                    changed.add(tables.getOrDefault(normalize(table), table));
+                }
+            });
+            snapshot.keySet().forEach(table -> {
+                if (!current.containsKey(table)) {
+                    info("[table=" + table + "] dropped, generated pojo is left as is");
+                }
+            });
+        }
+
+        snapshot = current;
+        return changed;
+    }
+
+    /**
+     * poll with a new connection after the previous one failed, the snapshot is kept
+     *
+     * @param conn
+     */
+    public void setConnection(final Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * include the primary and foreign keys of the tables in the markers, set before the first poll
+     *
+     * @param keys
+     */
+    public void setKeys(final KeyReader keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * forget the markers of the tables, so the next poll reports them as changed again
+     * (e.g. regeneration of the tables failed)
+     *
+     * @param tables
+     */
+    public void retry(final Collection<String> tables) {
+        if (snapshot != null) {
+            final Set<String> names = new HashSet<>();
+            tables.forEach(t -> names.add(normalize(t)));
+            snapshot.keySet().removeIf(table -> names.contains(normalize(table)));
+        }
+    }
+
+    /**
+     * schema fingerprint of the watched tables, changes whenever any of their definitions changes
+     *
+     * @return
+     * @throws SQLException
+     */
+    public String fingerprint() throws SQLException {
+        return fingerprint(null);
+    }
+
+    /**
+     * schema fingerprint of the watched tables including their primary and foreign keys
+     *
+     * @param keys loaded keys, null to fingerprint the columns only
+     * @return
+     * @throws SQLException
+     */
+    public String fingerprint(final KeyReader keys) throws SQLException {
+        long hash = 0;
+        for (Map.Entry<String, Long> entry : new TreeMap<>(readSnapshot()).entrySet()) {
+            hash = hash * 31 + entry.getKey().hashCode();
+            hash = hash * 31 + entry.getValue();
+            if (keys != null) {
+                hash = hash * 31 + keys.hash(conn, entry.getKey());
+            }
+        }
+        return Long.toHexString(hash);
+    }
+
+    /**
+     * marker per table, a new marker means the table definition has changed
+     *
+     * @return
+     * @throws SQLException
+     */
+    protected Map<String, Long> readSnapshot() throws SQLException {
+        if (oracle == null) {
+            oracle = StringUtils.containsIgnoreCase(conn.getMetaData().getDatabaseProductName(), "oracle");
+        }
+
+        final Map<String, Long> current = new HashMap<>();
+        if (oracle) {
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_ORACLE);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (isIncluded(rs.getString(1))) {
+                        current.put(rs.getString(1), Long.valueOf(rs.getString(2)));
+                    }
+                }
+            }
+            return current;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INFORMATION_SCHEMA)) {
+            String schema = conn.getSchema();
+            stmt.setString(1, StringUtils.isBlank(schema) ? conn.getCatalog() : schema);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String table = rs.getString(1);
+                    if (!isIncluded(table)) {
+                        continue;
+                    }
+                    long hash = Objects.hash(rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6));
+                    current.merge(table, hash, (a, b) -> a * 31 + b);
+                }
+            }
+        }
+
+        if (keys != null) {
+            final Map<String, Long> keyHashes = keys.hashAll(conn);
+            current.replaceAll((table, hash) -> hash * 31 + keyHashes.getOrDefault(normalize(table), 0L));
+        }
+        return current;
+    }
+
+    private boolean isIncluded(final String tableName) {
+        return tableName != null && (tables.isEmpty() || tables.containsKey(normalize(tableName)));
+    }
+
+    private String normalize(final String name) {
+        return name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * info print
+     *
+     * @param msg
+     */
+    private void info(String msg) {
+        Log.info("watch", msg);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.UserPrefs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * writes generated sources into the package directory
+ */
+public class FileSink extends PojoSink {
+
+    private volatile boolean dirCreated;
+
+    public FileSink(final UserPrefs prefs) {
+        super(prefs);
+    }
+
+    @Override
+    public String write(final String fileName, final String content) throws PojoWriterException {
+        createTargetDir();
+
+        Path targetFile = targetDir.resolve(fileName);
+
+        try {
+            Files.write(targetFile, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+            return targetFile.toString();
+
+        } catch (IOException e) {
+            throw new PojoWriterException("could not write pojo file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * create package directory once per run
+     *
+     * @throws PojoWriterException
+     */
+    private void createTargetDir() throws PojoWriterException {
+        if (dirCreated) {
+            return;
+        }
+
+        synchronized (this) {
+            if (dirCreated) {
+                return;
+            }
+
+            try {
+                Files.createDirectories(targetDir);
+            } catch (IOException e) {
+                throw new PojoWriterException("could not create targetDir: " + targetDir.toString() + ", error: " + e.getMessage());
+            }
+
+            if (!targetDir.toFile().exists() || !targetDir.toFile().isDirectory()) {
+                throw new PojoWriterException("pojo directory not exists: " + targetDir.toAbsolutePath());
+            }
+            dirCreated = true;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.DbColumn;
+import com.kumarvv.table2pojo.model.ForeignKey;
+import com.kumarvv.table2pojo.model.TableKeys;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * loads primary and foreign keys of the whole schema in one catalog query and joins them
+ * with the table columns in memory. falls back to per table JDBC metadata calls when the
+ * catalog query is not supported by the database. in low memory mode the catalog query is run
+ * per table instead, so only the keys of the tables in flight are in memory.
+ */
+public class KeyReader {
+
+    private static final String SQL_ORACLE = "select c.table_name, c.constraint_name, c.constraint_type, cc.column_name, cc.position, "
+            + "r.table_name, rc.column_name "
+            + "from all_constraints c "
+            + "join all_cons_columns cc on cc.owner = c.owner and cc.constraint_name = c.constraint_name "
+            + "left join all_constraints r on r.owner = c.r_owner and r.constraint_name = c.r_constraint_name "
+            + "left join all_cons_columns rc on rc.owner = r.owner and rc.constraint_name = r.constraint_name and rc.position = cc.position "
+            + "where c.owner = sys_context('USERENV', 'CURRENT_SCHEMA') and c.constraint_type in ('P', 'R') ";
+
+    private static final String ORDER_BY_ORACLE = "order by c.table_name, c.constraint_name, cc.position";
+
+    private static final String SQL_MYSQL = "select kcu.table_name, kcu.constraint_name, tc.constraint_type, kcu.column_name, kcu.ordinal_position, "
+            + "kcu.referenced_table_name, kcu.referenced_column_name "
+            + "from information_schema.table_constraints tc "
+            + "join information_schema.key_column_usage kcu on kcu.constraint_schema = tc.constraint_schema "
+            + "and kcu.constraint_name = tc.constraint_name and kcu.table_name = tc.table_name "
+            + "where tc.table_schema = database() and tc.constraint_type in ('PRIMARY KEY', 'FOREIGN KEY') ";
+
+    private static final String SQL_INFORMATION_SCHEMA = "select kcu.table_name, kcu.constraint_name, tc.constraint_type, kcu.column_name, kcu.ordinal_position, "
+            + "rcu.table_name, rcu.column_name "
+            + "from information_schema.table_constraints tc "
+            + "join information_schema.key_column_usage kcu on kcu.constraint_schema = tc.constraint_schema "
+            + "and kcu.constraint_name = tc.constraint_name and kcu.table_name = tc.table_name "
+            + "left join information_schema.referential_constraints rc on rc.constraint_schema = tc.constraint_schema "
+            + "and rc.constraint_name = tc.constraint_name "
+            + "left join information_schema.key_column_usage rcu on rcu.constraint_schema = rc.unique_constraint_schema "
+            + "and rcu.constraint_name = rc.unique_constraint_name and rcu.ordinal_position = kcu.position_in_unique_constraint "
+            + "where tc.table_schema = ? and tc.constraint_type in ('PRIMARY KEY', 'FOREIGN KEY') ";
+
+    private static final String ORDER_BY = "order by kcu.table_name, kcu.constraint_name, kcu.ordinal_position";
+
+    private final Map<String, TableKeys> keys = new ConcurrentHashMap<>();
+    private final Set<String> tables = new HashSet<>();
+    private final boolean perTable;
+    private volatile boolean bulkLoaded;
+    private volatile boolean catalogUnsupported;
+
+    /**
+     * no connection is kept, every query runs on the connection given by the caller
+     *
+     * @param prefs
+     */
+    public KeyReader(final UserPrefs prefs) {
+        this.perTable = prefs.isLowMemory();
+        if (!prefs.isAllTables() && prefs.getTables() != null) {
+            Arrays.stream(prefs.getTables()).forEach(t -> tables.add(normalize(t)));
+        }
+    }
+
+    /**
+     * load keys of all tables in one pass. in low memory mode the keys of the schema are not
+     * kept in memory, they are queried per table when the table is processed
+     *
+     * @param conn
+     */
+    public void load(final Connection conn) {
+        if (perTable) {
+            info("low memory, keys are loaded per table");
+            return;
+        }
+
+        long millis = System.currentTimeMillis();
+        try {
+            queryCatalog(conn, null, keys);
+            bulkLoaded = true;
+            info("loaded keys of " + keys.size() + " tables (elapsed: " + (System.currentTimeMillis() - millis) + "ms)");
+
+        } catch (SQLException | AbstractMethodError e) {
+            keys.clear();
+            catalogUnsupported = true;
+            error("bulk key loading not supported, falling back to per table metadata: " + e.getMessage());
+        }
+    }
+
+    /**
+     * mark primary key columns and single column foreign keys of the table
+     *
+     * @param conn connection of the calling writer, used by the per table fallback
+     * @param tableName
+     * @param columns
+     */
+    public void apply(final Connection conn, final String tableName, final List<DbColumn> columns) {
+        TableKeys tableKeys = get(conn, tableName);
+        if (tableKeys == null) {
+            return;
+        }
+
+        Set<String> pks = new HashSet<>();
+        tableKeys.getPrimaryKeys().forEach(pk -> pks.add(normalize(pk)));
+
+        Map<String, String> refs = new HashMap<>();
+        tableKeys.getForeignKeys().forEach(fk -> {
+            if (fk.getColumns().size() == 1 && isIncluded(fk.getRefTable())) {
+                refs.put(normalize(fk.getColumns().get(0)), fk.getRefTable());
+            }
+        });
+
+        columns.forEach(column -> {
+            String name = normalize(column.getName());
+            column.setPrimaryKey(pks.contains(name));
+            column.setRefTable(refs.get(name));
+        });
+    }
+
+    /**
+     * keys of the table, from the bulk load or (if not supported) from JDBC metadata
+     *
+     * @param conn connection of the calling writer, used by the per table fallback
+     * @param tableName
+     * @return
+     */
+    public TableKeys get(final Connection conn, final String tableName) {
+        if (StringUtils.isBlank(tableName)) {
+            return null;
+        }
+        final String key = normalize(tableName);
+        if (bulkLoaded) {
+            return keys.get(key);
+        }
+        if (perTable) {
+            // not kept, each table is processed once
+            return loadTable(conn, tableName);
+        }
+
+        TableKeys tableKeys = keys.get(key);
+        if (tableKeys == null) {
+            // metadata calls outside the map, they must not block writers of other tables.
+            // tables are processed once per run, a concurrent load of the same table is harmless
+            tableKeys = loadTable(conn, tableName);
+            TableKeys existing = keys.putIfAbsent(key, tableKeys);
+            if (existing != null) {
+                tableKeys = existing;
+            }
+        }
+        return tableKeys;
+    }
+
+    /**
+     * hash of the primary and foreign keys of the table, 0 if it has none
+     *
+     * @param conn connection of the caller, used by the per table fallback
+     * @param tableName
+     * @return
+     */
+    public long hash(final Connection conn, final String tableName) {
+        return hash(get(conn, tableName));
+    }
+
+    private long hash(final TableKeys tableKeys) {
+        if (tableKeys == null) {
+            return 0;
+        }
+
+        long hash = tableKeys.getPrimaryKeys().hashCode();
+        for (ForeignKey fk : tableKeys.getForeignKeys()) {
+            hash = hash * 31 + Objects.hash(fk.getName(), fk.getRefTable(), fk.getColumns(), fk.getRefColumns());
+        }
+        return hash;
+    }
+
+    /**
+     * hash of the keys per table (normalized name) from one catalog query, e.g. to detect key changes.
+     * empty if the catalog query is not supported
+     *
+     * @param conn
+     * @return
+     * @throws SQLException
+     */
+    public Map<String, Long> hashAll(final Connection conn) throws SQLException {
+        final Map<String, Long> hashes = new HashMap<>();
+        if (catalogUnsupported) {
+            return hashes;
+        }
+
+        final Map<String, TableKeys> current = new HashMap<>();
+        queryCatalog(conn, null, current);
+        current.forEach((table, tableKeys) -> hashes.put(table, hash(tableKeys)));
+        return hashes;
+    }
+
+    /**
+     * reload the keys of the tables (e.g. after a DDL change), the keys of the other tables are kept
+     *
+     * @param conn
+     * @param tableNames
+     */
+    public void reload(final Connection conn, final Collection<String> tableNames) {
+        if (perTable) {
+            // not kept, queried when the table is processed
+            return;
+        }
+        for (String tableName : tableNames) {
+            keys.put(normalize(tableName), loadTable(conn, tableName));
+        }
+    }
+
+    /**
+     * keys of one table, from the catalog query of the table (if supported) or from JDBC metadata
+     *
+     * @param conn
+     * @param tableName
+     * @return
+     */
+    protected TableKeys loadTable(final Connection conn, final String tableName) {
+        if (!catalogUnsupported) {
+            try {
+                Map<String, TableKeys> tableKeys = new HashMap<>();
+                queryCatalog(conn, tableName, tableKeys);
+                TableKeys found = tableKeys.get(normalize(tableName));
+                if (found == null) {
+                    found = new TableKeys();
+                    found.setTableName(tableName);
+                }
+                return found;
+            } catch (SQLException | AbstractMethodError e) {
+                catalogUnsupported = true;
+                error("key query not supported, falling back to per table metadata: " + e.getMessage());
+            }
+        }
+
+        TableKeys tableKeys = new TableKeys();
+        tableKeys.setTableName(tableName);
+        try {
+            DatabaseMetaData meta = conn.getMetaData();
+            try (ResultSet rs = meta.getPrimaryKeys(null, null, tableName)) {
+                while (rs.next()) {
+                    tableKeys.getPrimaryKeys().add(rs.getString("COLUMN_NAME"));
+                }
+            }
+            Map<String, ForeignKey> fks = new LinkedHashMap<>();
+            try (ResultSet rs = meta.getImportedKeys(null, null, tableName)) {
+                while (rs.next()) {
+                    String name = StringUtils.defaultString(rs.getString("FK_NAME"), rs.getString("PKTABLE_NAME"));
+                    ForeignKey fk = fks.computeIfAbsent(name, n -> new ForeignKey());
+                    fk.setName(name);
+                    fk.setRefTable(rs.getString("PKTABLE_NAME"));
+                    fk.getColumns().add(rs.getString("FKCOLUMN_NAME"));
+                    fk.getRefColumns().add(rs.getString("PKCOLUMN_NAME"));
+                }
+            }
+            tableKeys.getForeignKeys().addAll(fks.values());
+        } catch (SQLException sqle) {
+            error("[table=" + tableName + "] " + sqle.getMessage());
+        }
+        return tableKeys;
+    }
+
+    /**
+     * run the catalog query of the database for all tables or for one table
+     *
+     * @param conn
+     * @param tableName null for all tables
+     * @param target keys by normalized table name
+     * @throws SQLException
+     */
+    private void queryCatalog(final Connection conn, final String tableName, final Map<String, TableKeys> target) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        String product = StringUtils.defaultString(meta.getDatabaseProductName()).toLowerCase(Locale.ROOT);
+
+        String sql = SQL_INFORMATION_SCHEMA;
+        String orderBy = ORDER_BY;
+        String tableColumn = "kcu.table_name";
+        boolean bindSchema = true;
+        if (product.contains("oracle")) {
+            sql = SQL_ORACLE;
+            orderBy = ORDER_BY_ORACLE;
+            tableColumn = "c.table_name";
+            bindSchema = false;
+        } else if (product.contains("mysql") || product.contains("mariadb")) {
+            sql = SQL_MYSQL;
+            bindSchema = false;
+        }
+        if (tableName != null) {
+            // the exact stored name, a function on the column would turn the indexed lookup into a catalog scan
+            sql += "and " + tableColumn + " = ? ";
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql + orderBy)) {
+            int param = 1;
+            if (bindSchema) {
+                stmt.setString(param++, conn.getSchema());
+            }
+            if (tableName != null) {
+                stmt.setString(param, toStoredCase(meta, tableName.trim()));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    addKeyColumn(target, rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(6), rs.getString(7));
+                }
+            }
+        }
+    }
+
+    /**
+     * add key column row of the catalog query, rows are ordered by table, constraint and position
+     */
+    private void addKeyColumn(Map<String, TableKeys> target, String tableName, String constraintName, String constraintType,
+                              String columnName, String refTable, String refColumn) {
+        if (StringUtils.isAnyBlank(tableName, constraintType, columnName) || !isIncluded(tableName)) {
+            return;
+        }
+
+        TableKeys tableKeys = target.computeIfAbsent(normalize(tableName), t -> {
+            TableKeys k = new TableKeys();
+            k.setTableName(tableName);
+            return k;
+        });
+
+        if ("P".equals(constraintType) || "PRIMARY KEY".equalsIgnoreCase(constraintType)) {
+            tableKeys.getPrimaryKeys().add(columnName);
+        } else if (StringUtils.isNotBlank(refTable)) {
+            List<ForeignKey> fks = tableKeys.getForeignKeys();
+            ForeignKey fk = fks.isEmpty() ? null : fks.get(fks.size() - 1);
+            if (fk == null || !StringUtils.equals(fk.getName(), constraintName)) {
+                fk = new ForeignKey();
+                fk.setName(constraintName);
+                fk.setRefTable(refTable);
+                fks.add(fk);
+            }
+            fk.getColumns().add(columnName);
+            fk.getRefColumns().add(refColumn);
+        }
+    }
+
+    /**
+     * tables part of this run, all when generating all tables
+     *
+     * @param tableName
+     * @return
+     */
+    private boolean isIncluded(final String tableName) {
+        return tables.isEmpty() || tables.contains(normalize(tableName));
+    }
+
+    /**
+     * table name as stored in the catalog, folded like the unquoted name is resolved by the column
+     * metadata query of the table (select * from name). names read from the catalog are unchanged
+     *
+     * @param meta
+     * @param tableName
+     * @return
+     * @throws SQLException
+     */
+    private String toStoredCase(final DatabaseMetaData meta, final String tableName) throws SQLException {
+        if (meta.storesUpperCaseIdentifiers()) {
+            return tableName.toUpperCase(Locale.ROOT);
+        }
+        if (meta.storesLowerCaseIdentifiers()) {
+            return tableName.toLowerCase(Locale.ROOT);
+        }
+        return tableName;
+    }
+
+    private String normalize(final String name) {
+        return name == null ? null : name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * error print
+     *
+     * @param msg
+     */
+    private void error(String msg) {
+        Log.error("keys", msg);
+    }
+
+    /**
+     * info print
+     *
+     * @param msg
+     */
+    private void info(String msg) {
+        Log.info("keys", msg);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import org.apache.commons.text.StringEscapeUtils;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * asynchronous log sink. threads publish entries into a lock-free ring buffer, a single
+ * drainer thread formats them and writes each batch to stdout with one flush.
+ * producers only wait when the ring is full (the drainer fell behind). the drainer parks while
+ * the ring is empty (until the next progress line, if any) and is unparked by the next entry.
+ */
+public final class Log {
+
+    public enum Level {
+        ERROR, INFO, DEBUG
+    }
+
+    private static final int CAPACITY = 1 << 13;
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+
+    private static final AtomicReferenceArray<Entry> RING = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong HEAD = new AtomicLong();
+    private static final AtomicLong TAIL = new AtomicLong();
+    private static final List<Progress> TRACKED = new CopyOnWriteArrayList<>();
+
+    private static volatile Level level = Level.INFO;
+    private static volatile boolean json;
+    private static volatile long progressMillis;
+    private static volatile PrintStream out = System.out;
+    private static volatile Thread drainer;
+    private static volatile boolean idle;
+    private static volatile boolean stopping;
+    private static boolean hookAdded;
+
+    private Log() {
+    }
+
+    public static void error(String source, String msg) {
+        publish(Level.ERROR, source, msg, false);
+    }
+
+    public static void info(String source, String msg) {
+        publish(Level.INFO, source, msg, false);
+    }
+
+    public static void debug(String source, String msg) {
+        publish(Level.DEBUG, source, msg, false);
+    }
+
+    /**
+     * line without level/source prefix (in text format)
+     *
+     * @param lvl
+     * @param line
+     */
+    public static void print(Level lvl, String line) {
+        publish(lvl, null, line, true);
+    }
+
+    public static void setLevel(Level level) {
+        Log.level = level;
+    }
+
+    public static void setJson(boolean json) {
+        Log.json = json;
+    }
+
+    public static void setOut(PrintStream out) {
+        Log.out = out;
+    }
+
+    /**
+     * print a progress line of the tracked runs every given millis, 0 disables progress lines
+     *
+     * @param progressMillis
+     */
+    public static void setProgressMillis(long progressMillis) {
+        Log.progressMillis = progressMillis;
+    }
+
+    public static void track(Progress progress) {
+        TRACKED.add(progress);
+    }
+
+    public static void untrack(Progress progress) {
+        TRACKED.remove(progress);
+    }
+
+    /**
+     * wait until all published entries are written
+     */
+    public static void flush() {
+        long target = HEAD.get();
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        while (TAIL.get() < target && drainer != null && System.currentTimeMillis() < deadline) {
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+    }
+
+    /**
+     * write all published entries and stop the drainer thread, e.g. at the end of a run in a
+     * long-lived process. the next entry starts a new drainer
+     */
+    public static void shutdown() {
+        final Thread thread;
+        synchronized (Log.class) {
+            thread = drainer;
+            if (thread == null) {
+                return;
+            }
+            stopping = true;
+        }
+
+        LockSupport.unpark(thread);
+        try {
+            thread.join(FLUSH_TIMEOUT_MILLIS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (Log.class) {
+            drainer = null;
+            stopping = false;
+        }
+        // published while the drainer was stopping
+        if (TAIL.get() < HEAD.get()) {
+            startDrainer();
+        }
+    }
+
+    private static void publish(Level lvl, String source, String msg, boolean raw) {
+        if (lvl.ordinal() > level.ordinal()) {
+            return;
+        }
+        Thread thread = drainer;
+        if (thread == null) {
+            thread = startDrainer();
+        }
+
+        long seq = HEAD.getAndIncrement();
+        while (seq - TAIL.get() >= CAPACITY) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+        RING.set((int) (seq & MASK), new Entry(System.currentTimeMillis(), lvl, source, msg, raw));
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private static synchronized Thread startDrainer() {
+        if (drainer != null) {
+            return drainer;
+        }
+        Thread thread = new Thread(Log::drain, "log");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+        if (!hookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+            hookAdded = true;
+        }
+        return thread;
+    }
+
+    /**
+     * drainer loop, the only consumer of the ring
+     */
+    private static void drain() {
+        final StringBuilder sb = new StringBuilder();
+        long lastProgress = System.currentTimeMillis();
+        while (true) {
+            int count = 0;
+            long tail = TAIL.get();
+            while (count < MAX_BATCH) {
+                int idx = (int) (tail & MASK);
+                Entry entry = RING.get(idx);
+                if (entry == null) {
+                    break;
+                }
+                RING.set(idx, null);
+                TAIL.lazySet(++tail);
+                format(sb, entry);
+                count++;
+            }
+
+            long now = System.currentTimeMillis();
+            if (progressMillis > 0 && now - lastProgress >= progressMillis) {
+                lastProgress = now;
+                for (Progress progress : TRACKED) {
+                    format(sb, new Entry(now, Level.INFO, "progress", progress.format(), false));
+                }
+            }
+
+            if (sb.length() > 0) {
+                out.print(sb);
+                out.flush();
+                sb.setLength(0);
+            }
+
+            if (count == 0) {
+                if (stopping) {
+                    return;
+                }
+                park(tail, lastProgress);
+            }
+        }
+    }
+
+    /**
+     * park until the next entry (or progress line). idle is set before the ring is checked again,
+     * so a producer either sees idle and unparks or its entry is seen here
+     *
+     * @param tail
+     * @param lastProgress
+     */
+    private static void park(final long tail, final long lastProgress) {
+        idle = true;
+        try {
+            if (RING.get((int) (tail & MASK)) != null || stopping) {
+                return;
+            }
+            if (progressMillis > 0 && !TRACKED.isEmpty()) {
+                long wait = lastProgress + progressMillis - System.currentTimeMillis();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(1, wait)));
+            } else {
+                LockSupport.park();
+            }
+        } finally {
+            idle = false;
+        }
+    }
+
+    private static void format(final StringBuilder sb, final Entry entry) {
+        if (json) {
+            sb.append("{\"ts\":\"").append(Instant.ofEpochMilli(entry.millis)).append("\",\"level\":\"").append(entry.level).append('"');
+            if (entry.source != null) {
+                sb.append(",\"source\":\"").append(StringEscapeUtils.escapeJson(entry.source)).append('"');
+            }
+            sb.append(",\"msg\":\"").append(StringEscapeUtils.escapeJson(String.valueOf(entry.msg))).append("\"}");
+        } else if (entry.raw) {
+            sb.append(entry.msg);
+        } else {
+            if (entry.source != null) {
+                sb.append('(').append(entry.source).append(") ");
+            }
+            sb.append(entry.level).append(": ").append(entry.msg);
+        }
+        sb.append(System.lineSeparator());
+    }
+
+    private static final class Entry {
+        private final long millis;
+        private final Level level;
+        private final String source;
+        private final String msg;
+        private final boolean raw;
+
+        Entry(long millis, Level level, String source, String msg, boolean raw) {
+            this.millis = millis;
+            this.level = level;
+            this.source = source;
+            this.msg = msg;
+            this.raw = raw;
+        }
+    }
+}
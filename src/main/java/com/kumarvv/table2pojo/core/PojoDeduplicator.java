@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.DbColumn;
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * detects structurally identical (or prefix-identical) tables and generates one shared abstract
+ * base class per structure with thin per-table subclasses.
+ *
+ * structure of a table is its ordered list of column name + java type. a table extends the base of
+ * the longest structure that is a prefix of its own, as long as that prefix covers at least half
+ * of its columns and the structure is shared by two or more tables.
+ */
+public class PojoDeduplicator {
+
+    private static final String BASE_SUFFIX = "Base";
+
+    private final PojoGenerator generator;
+    private final Map<String, List<DbColumn>> tables = new ConcurrentSkipListMap<>();
+
+    /**
+     * requires user preferences and the run context
+     *
+     * @param prefs
+     * @param context sink, type rules and result of the run
+     */
+    public PojoDeduplicator(final UserPrefs prefs, final RunContext context) {
+        this.generator = new PojoGenerator(prefs, context);
+    }
+
+    /**
+     * collect table columns, called from writer threads
+     *
+     * @param tableName
+     * @param columns
+     */
+    public void add(final String tableName, final List<DbColumn> columns) {
+        if (StringUtils.isBlank(tableName) || columns == null || columns.isEmpty()) {
+            return;
+        }
+        tables.put(tableName, columns);
+    }
+
+    /**
+     * group collected tables and generate base classes and subclasses
+     *
+     * @param result collects generated files and errors
+     * @return generated file paths
+     */
+    public List<String> generate(final GenerateResult result) {
+        final List<String> paths = new ArrayList<>();
+
+        // canonical structure per table and the tables sharing each structure
+        final Map<String, String[]> signatures = new HashMap<>();
+        final Map<String, Integer> structureCounts = new HashMap<>();
+        tables.forEach((tableName, columns) -> {
+            String[] signature = new String[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                DbColumn column = columns.get(i);
+                signature[i] = column.getName() + " " + column.getJavaType()
+                        + (column.isPrimaryKey() ? " id" : "") + (column.getRefTable() != null ? " " + column.getRefTable() : "");
+            }
+            signatures.put(tableName, signature);
+        });
+        signatures.values().forEach(signature -> structureCounts.merge(key(signature, signature.length), 1, Integer::sum));
+
+        // potential members of each structure: tables whose columns start with it
+        final Map<String, Integer> potential = new HashMap<>();
+        signatures.values().forEach(signature -> {
+            for (int len = minPrefix(signature.length); len <= signature.length; len++) {
+                String key = key(signature, len);
+                if (structureCounts.containsKey(key)) {
+                    potential.merge(key, 1, Integer::sum);
+                }
+            }
+        });
+
+        // each table picks the longest shared structure, sorted by structure so groups are stable
+        final Map<String, Integer> baseLengths = new HashMap<>();
+        final Map<String, SortedSet<String>> groups = new TreeMap<>();
+        signatures.forEach((tableName, signature) -> {
+            for (int len = signature.length; len >= minPrefix(signature.length); len--) {
+                String key = key(signature, len);
+                if (potential.getOrDefault(key, 0) >= 2) {
+                    groups.computeIfAbsent(key, k -> new TreeSet<>()).add(tableName);
+                    baseLengths.put(key, len);
+                    return;
+                }
+            }
+        });
+
+        final Set<String> grouped = new HashSet<>();
+        final Set<String> baseNames = new HashSet<>();
+        final Set<String> pojoNames = new HashSet<>();
+        tables.keySet().forEach(tableName -> pojoNames.add(generator.toMethodName(tableName)));
+        groups.forEach((key, members) -> {
+            if (members.size() < 2) {
+                return;
+            }
+
+            int baseLength = baseLengths.get(key);
+            String baseName = uniqueBaseName(members, baseNames, pojoNames);
+            try {
+                List<DbColumn> baseColumns = tables.get(members.first()).subList(0, baseLength);
+                paths.add(generator.generatePojo(baseName, null, true, baseColumns));
+                info("generated base class: " + baseName + " (" + members.size() + " tables)");
+            } catch (PojoWriterException e) {
+                result.addError(baseName, e.getMessage());
+                error("[base=" + baseName + "] " + e.getMessage());
+                return;
+            }
+
+            members.forEach(tableName -> {
+                List<DbColumn> columns = tables.get(tableName);
+                try {
+                    paths.add(generator.generatePojo(generator.toMethodName(tableName), baseName, false,
+                            columns.subList(baseLength, columns.size())));
+                    grouped.add(tableName);
+                } catch (PojoWriterException e) {
+                    result.addError(tableName, e.getMessage());
+                    error("[table=" + tableName + "] " + e.getMessage());
+                }
+            });
+        });
+
+        tables.forEach((tableName, columns) -> {
+            if (grouped.contains(tableName)) {
+                return;
+            }
+            try {
+                paths.add(generator.generatePojo(tableName, columns));
+            } catch (PojoWriterException e) {
+                result.addError(tableName, e.getMessage());
+                error("[table=" + tableName + "] " + e.getMessage());
+            }
+        });
+
+        paths.forEach(result::addFile);
+        info("deduplicated " + grouped.size() + " of " + tables.size() + " tables into " + baseNames.size() + " base classes");
+        return paths;
+    }
+
+    /**
+     * base class name from the common prefix of the member table names,
+     * e.g. SALES_2023_01, SALES_2023_02 => SalesBase
+     *
+     * @param members
+     * @param used base names already taken
+     * @param pojoNames pojo names of the tables
+     * @return
+     */
+    protected String uniqueBaseName(final SortedSet<String> members, final Set<String> used, final Set<String> pojoNames) {
+        String prefix = StringUtils.getCommonPrefix(members.toArray(new String[0]));
+        prefix = prefix.replaceAll("[^A-Za-z]+$", "");
+        if (prefix.length() < 2) {
+            prefix = members.first();
+        }
+
+        String name = generator.toMethodName(prefix) + BASE_SUFFIX;
+        String unique = name;
+        for (int i = 2; used.contains(unique) || pojoNames.contains(unique); i++) {
+            unique = name + i;
+        }
+        used.add(unique);
+        return unique;
+    }
+
+    private int minPrefix(final int length) {
+        return Math.max(1, (length + 1) / 2);
+    }
+
+    private String key(final String[] signature, final int length) {
+        return String.join("\n", Arrays.asList(signature).subList(0, length));
+    }
+
+    /**
+     * error print
+     *
+     * @param msg
+     */
+    private void error(String msg) {
+        Log.error("dedup", msg);
+    }
+
+    /**
+     * info print
+     *
+     * @param msg
+     */
+    private void info(String msg) {
+        Log.info("dedup", msg);
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.jfr.Recorder;
+import com.kumarvv.table2pojo.model.DbColumn;
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.text.WordUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * renders pojo source from table columns and hands it over to the sink.
+ * shared by the writer threads and the post-processing steps (deduplication).
+ */
+public class PojoGenerator {
+
+    private static final String NEW_LINE = "\n";
+
+    private static final Map<String, String> ID_ANNOTATIONS = new HashMap<>();
+
+    static {
+        ID_ANNOTATIONS.put("javax", "javax.persistence.Id");
+        ID_ANNOTATIONS.put("jakarta", "jakarta.persistence.Id");
+        ID_ANNOTATIONS.put("none", null);
+    }
+
+    private final UserPrefs prefs;
+    private final PojoSink sink;
+    private final GenerateResult result;
+    private final TypeResolver types;
+    private final String idAnnotation;
+
+    /**
+     * requires user preferences and the run context with the sink receiving generated sources
+     *
+     * @param prefs
+     * @param context sink, type rules and result (collects render/write times)
+     */
+    public PojoGenerator(final UserPrefs prefs, final RunContext context) {
+        this.prefs = prefs;
+        this.sink = context.getSink();
+        this.result = context.getResult();
+        this.types = context.getTypes() != null ? context.getTypes() : TypeResolver.defaults();
+        this.idAnnotation = getIdAnnotation(prefs.getIdAnnotation());
+    }
+
+    /**
+     * check id annotation option
+     *
+     * @param option javax, jakarta or none
+     * @return true if valid
+     */
+    public static boolean isIdAnnotation(final String option) {
+        return ID_ANNOTATIONS.containsKey(StringUtils.lowerCase(option, Locale.ROOT));
+    }
+
+    /**
+     * class name of the id annotation option
+     *
+     * @param option javax, jakarta or none
+     * @return null for none
+     */
+    private static String getIdAnnotation(final String option) {
+        return ID_ANNOTATIONS.get(StringUtils.lowerCase(StringUtils.defaultIfBlank(option, "javax"), Locale.ROOT));
+    }
+
+    /**
+     * generate pojo
+     *
+     * @param tableName
+     * @param columns
+     */
+    public String generatePojo(final String tableName, final List<DbColumn> columns) throws PojoWriterException {
+        if (tableName == null || CollectionUtils.isEmpty(columns)) {
+            throw new PojoWriterException("invalid table name");
+        }
+
+        return generatePojo(toMethodName(tableName), null, false, columns);
+    }
+
+    /**
+     * generate pojo, optionally abstract and/or extending a (generated) super class
+     *
+     * @param pojoName
+     * @param superName optional super class, columns of the super class must not be repeated in columns
+     * @param isAbstract
+     * @param columns
+     */
+    public String generatePojo(final String pojoName, final String superName, final boolean isAbstract,
+                               final List<DbColumn> columns) throws PojoWriterException {
+        if (StringUtils.isBlank(pojoName) || columns == null || (superName == null && columns.isEmpty())) {
+            throw new PojoWriterException("invalid table name");
+        }
+
+        long renderStart = System.nanoTime();
+        final Object event = Recorder.beginRendered();
+        final Set<String> imports = new TreeSet<>();
+        final List<String> properties = new ArrayList<>();
+        final List<String> methods = new ArrayList<>();
+
+        final Set<String> names = new HashSet<>();
+        columns.forEach(column -> names.add(column.getJavaProperty()));
+
+        columns.forEach(column -> {
+            generatePojoColumn(column, imports, properties, methods);
+            generatePojoReference(column, names, properties, methods);
+        });
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("package ").append(PojoSink.getPkg(prefs)).append(";").append(NEW_LINE);
+        sb.append(NEW_LINE);
+
+        if (superName != null) {
+            imports.remove("import java.io.Serializable;");
+        }
+        imports.forEach(s -> sb.append(s).append(NEW_LINE));
+        sb.append(NEW_LINE);
+
+        sb.append("public ");
+        if (isAbstract) {
+            sb.append("abstract ");
+        }
+        sb.append("class ").append(pojoName);
+        if (superName != null) {
+            sb.append(" extends ").append(superName).append(" {").append(NEW_LINE);
+        } else {
+            sb.append(" implements Serializable {").append(NEW_LINE);
+        }
+
+        properties.forEach(s -> sb.append(s).append(NEW_LINE));
+        sb.append(NEW_LINE);
+
+        methods.forEach(s -> sb.append(s).append(NEW_LINE));
+
+        sb.append("}");
+        String pojoStr = sb.toString();
+        Recorder.commitRendered(event, pojoName, pojoStr);
+
+        long writeStart = System.nanoTime();
+        String path = writePojo(pojoName, pojoStr);
+        result.addPhaseNanos(GenerateResult.Phase.RENDER, writeStart - renderStart);
+        result.addPhaseNanos(GenerateResult.Phase.WRITE, System.nanoTime() - writeStart);
+        return path;
+    }
+
+    /**
+     * generate pojo column details
+     *
+     * @param column
+     * @param imports
+     * @param properties
+     * @param methods
+     */
+    private void generatePojoColumn(final DbColumn column, final Set<String> imports, final List<String> properties, final List<String> methods) {
+        if (column == null) {
+            return;
+        }
+
+        imports.add("import java.io.Serializable;");
+        String javaImport = types.getImport(column.getJavaType());
+        if (javaImport != null) {
+            imports.add("import " + javaImport + ";");
+        }
+
+        if (column.isPrimaryKey() && idAnnotation != null) {
+            imports.add("import " + idAnnotation + ";");
+            properties.add("\t@Id");
+        }
+
+        properties.add(generatePropertyLine(column));
+
+        methods.add(generateGetterSetter(column));
+    }
+
+    /**
+     * generate reference property to the pojo of the foreign key table, e.g. CUSTOMER_ID => customer
+     *
+     * @param column
+     * @param names property names already used in the pojo
+     * @param properties
+     * @param methods
+     */
+    private void generatePojoReference(final DbColumn column, final Set<String> names, final List<String> properties, final List<String> methods) {
+        if (column == null || StringUtils.isBlank(column.getRefTable())) {
+            return;
+        }
+
+        String property = StringUtils.removeEnd(column.getJavaProperty(), "Id");
+        if (StringUtils.isBlank(property) || names.contains(property)) {
+            property = column.getJavaProperty() + "Ref";
+        }
+        names.add(property);
+
+        String refType = toMethodName(column.getRefTable());
+
+        properties.add("\tprivate " + refType + " " + property + ";");
+
+        String methodName = StringUtils.capitalize(property);
+        StringBuilder sb = new StringBuilder();
+        sb.append("\tpublic ").append(refType).append(" get").append(methodName).append("() {\n");
+        sb.append("\t\treturn ").append(property).append(";").append(NEW_LINE);
+        sb.append("\t}\n");
+        sb.append(NEW_LINE);
+        sb.append("\tpublic void set").append(methodName).append("(").append(refType).append(" ").append(property).append(") {\n");
+        sb.append("\t\tthis.").append(property).append(" = ").append(property).append(";").append(NEW_LINE);
+        sb.append("\t}\n");
+        methods.add(sb.toString());
+    }
+
+    /**
+     * generate propertiy line
+     *
+     * @param column
+     * @return
+     */
+    protected String generatePropertyLine(final DbColumn column) {
+        if (column == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("\tprivate ").append(column.getJavaType()).append(" ").append(toCamelCase(column.getName())).append(";");
+
+        return sb.toString();
+    }
+
+    /**
+     * generate getter/setter for column
+     *
+     * @param column
+     * @return
+     */
+    protected String generateGetterSetter(final DbColumn column) {
+        if (column == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("\tpublic ").append(column.getJavaType()).append(" get").append(toMethodName(column.getName())).append("() {\n");
+        sb.append("\t\treturn ").append(column.getJavaProperty()).append(";").append(NEW_LINE);
+        sb.append("\t}\n");
+
+        sb.append(NEW_LINE);
+
+        sb.append("\tpublic void ").append("set").append(toMethodName(column.getName())).append("(")
+                .append(column.getJavaType()).append(" ").append(column.getJavaProperty()).append(")").append(" {\n");
+        sb.append("\t\tthis.").append(column.getJavaProperty()).append(" = ").append(column.getJavaProperty()).append(";").append(NEW_LINE);
+        sb.append("\t}\n");
+
+        return sb.toString();
+    }
+
+    /**
+     * get java type
+     *
+     * @param column
+     * @return
+     */
+    public String getJavaType(final DbColumn column) {
+        return types.resolve(column);
+    }
+
+    /**
+     * db columnName to camelCaseName
+     *
+     * @param str
+     * @return
+     */
+    public String toCamelCase(String str) {
+        return WordUtils.uncapitalize(WordUtils.capitalizeFully(str, '_').replaceAll("_", ""));
+    }
+
+    /**
+     * db columnName to camelCaseName
+     *
+     * @param str
+     * @return
+     */
+    public String toMethodName(String str) {
+        return WordUtils.capitalizeFully(str, '_').replaceAll("_", "");
+    }
+
+    /**
+     * hands pojo over to the sink
+     *
+     * @param pojoStr
+     */
+    private String writePojo(String pojoName, String pojoStr) throws PojoWriterException {
+        if (StringUtils.isBlank(pojoName) || StringUtils.isEmpty(pojoStr)) {
+            throw new PojoWriterException("no pojo content, skipping write");
+        }
+
+        final Object event = Recorder.beginWritten();
+        String path = sink.write(pojoName + ".java", pojoStr);
+        if (event != null) {
+            Recorder.commitWritten(event, path, pojoStr.getBytes(StandardCharsets.UTF_8).length, sink.isBuffered());
+        }
+        return path;
+    }
+}
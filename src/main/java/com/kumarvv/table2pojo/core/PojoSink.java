@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * destination of the generated sources. writers hand over rendered content, the sink decides
+ * what to do with it (write files, compare with existing files, ...). write is called concurrently.
+ */
+public abstract class PojoSink {
+
+    protected final UserPrefs prefs;
+    protected final Path targetDir;
+
+    /**
+     * requires user preferences
+     *
+     * @param prefs
+     */
+    protected PojoSink(final UserPrefs prefs) {
+        this.prefs = prefs;
+        this.targetDir = targetDir(prefs);
+    }
+
+    /**
+     * handle generated file of the package directory
+     *
+     * @param fileName file name within the package directory, e.g. Sales.java
+     * @param content
+     * @return path (or location) of the file
+     * @throws PojoWriterException
+     */
+    public abstract String write(String fileName, String content) throws PojoWriterException;
+
+    /**
+     * content of a file of the package directory from a previous run, e.g. the registry index
+     *
+     * @param fileName file name within the package directory
+     * @return content, null if the file does not exist
+     * @throws PojoWriterException
+     */
+    public String read(final String fileName) throws PojoWriterException {
+        Path file = targetDir.resolve(fileName);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new PojoWriterException("could not read " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * called once after all files are written
+     *
+     * @throws PojoWriterException
+     */
+    public void close() throws PojoWriterException {
+    }
+
+    /**
+     * true if write only buffers the content and the files are written by close
+     *
+     * @return
+     */
+    public boolean isBuffered() {
+        return false;
+    }
+
+    public Path getTargetDir() {
+        return targetDir;
+    }
+
+    /**
+     * package of the pojos, pojo if not specified
+     *
+     * @param prefs
+     * @return
+     */
+    public static String getPkg(final UserPrefs prefs) {
+        String pkg = prefs.getPkg();
+        if (StringUtils.isBlank(pkg)) {
+            pkg = "pojo";
+        }
+        return pkg;
+    }
+
+    /**
+     * package directory within the target directory, out if not specified
+     *
+     * @param prefs
+     * @return
+     */
+    public static Path targetDir(final UserPrefs prefs) {
+        String dir = prefs.getDir();
+        if (StringUtils.isBlank(dir)) {
+            dir = "out";
+        }
+
+        Path curr = Paths.get(".");
+        Path out = Paths.get(dir, getPkg(prefs).split("\\."));
+        return curr.resolve(out).normalize();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * checks of the options of one run, shared by the command line, the API, the profiles and the
+ * gradle plugin so that every entry point rejects the same combinations
+ */
+public final class PrefsValidator {
+
+    private PrefsValidator() {
+    }
+
+    /**
+     * validate options of a run
+     *
+     * @param prefs
+     * @throws PojoWriterException with the reason of the first failed check
+     */
+    public static void validate(final UserPrefs prefs) throws PojoWriterException {
+        if (prefs == null) {
+            throw new PojoWriterException("invalid user preferences");
+        }
+
+        if (!prefs.isAllTables() && ArrayUtils.isEmpty(prefs.getTables())) {
+            throw new PojoWriterException("choose \"all\" or \"tables\" option with list of tables");
+        }
+
+        if (prefs.isCheck() && prefs.getWatchMillis() > 0) {
+            throw new PojoWriterException("check and watch can not be combined");
+        }
+
+        if (prefs.isLowMemory() && prefs.isDedup()) {
+            throw new PojoWriterException("dedup keeps the columns of all tables in memory, it can not be combined with low-memory");
+        }
+
+        if (prefs.getArchive() != null && (prefs.isCheck() || prefs.isLowMemory())) {
+            throw new PojoWriterException("archive keeps all sources in memory until it is written, it can not be combined with check or low-memory");
+        }
+
+        if (prefs.isRegistry() && prefs.isLowMemory()) {
+            throw new PojoWriterException("registry keeps the columns of all tables in memory, it can not be combined with low-memory");
+        }
+
+        if (!PojoGenerator.isIdAnnotation(prefs.getIdAnnotation())) {
+            throw new PojoWriterException("id annotation must be javax, jakarta or none");
+        }
+
+        if (prefs.getNumThreads() < 1) {
+            throw new PojoWriterException("threads must be 1 or more");
+        }
+
+        if (prefs.getConnections() < 0) {
+            throw new PojoWriterException("connections must be 1 or more");
+        }
+
+        if (prefs.getCompression() < -1 || prefs.getCompression() > 9) {
+            throw new PojoWriterException("compression level must be 0-9");
+        }
+
+        TypeResolver.load(prefs.getTypeRules());
+    }
+}
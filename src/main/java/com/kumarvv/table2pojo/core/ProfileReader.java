@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.Profile;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * reads a profiles file, e.g.
+ *
+ * <pre>
+ * profiles=emea,reporting
+ * workers=8
+ * connections=2
+ *
+ * emea.driver=oracle.jdbc.OracleDriver
+ * emea.url=jdbc:oracle:thin:@emea-db:1521:orcl
+ * emea.username=scott
+ * emea.password=tiger
+ * emea.all=true
+ * emea.pkg=com.acme.emea
+ * emea.dir=out/emea
+ * emea.threads=4
+ *
+ * reporting.url=jdbc:postgresql://reports/dw
+ * reporting.tables=ORDERS,CUSTOMERS
+ * reporting.archive=out/reporting-sources.jar
+ * reporting.connections=1
+ * </pre>
+ *
+ * options not set in a profile default to the command line options
+ */
+public class ProfileReader {
+
+    public static final String KEY_PROFILES = "profiles";
+    public static final String KEY_WORKERS = "workers";
+    public static final String KEY_CONNECTIONS = "connections";
+
+    private static final String[] DB_KEYS = {"driver", "url", "username", "password"};
+
+    private final UserPrefs defaults;
+    private final List<Profile> profiles = new ArrayList<>();
+    private int workers = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * requires command line options as defaults of the profiles
+     *
+     * @param defaults
+     */
+    public ProfileReader(final UserPrefs defaults) {
+        this.defaults = defaults;
+    }
+
+    /**
+     * read profiles file
+     *
+     * @param path
+     * @throws PojoWriterException
+     */
+    public void read(final Path path) throws PojoWriterException {
+        final Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            props.load(in);
+        } catch (IOException e) {
+            throw new PojoWriterException("unable to read profiles file " + path + ": " + e.getMessage());
+        }
+        read(props);
+    }
+
+    /**
+     * read profiles from properties
+     *
+     * @param props
+     * @throws PojoWriterException
+     */
+    public void read(final Properties props) throws PojoWriterException {
+        final String[] names = StringUtils.split(props.getProperty(KEY_PROFILES, ""), ", ");
+        if (names == null || names.length == 0) {
+            throw new PojoWriterException("no profiles listed in \"" + KEY_PROFILES + "\"");
+        }
+
+        workers = toInt(props, KEY_WORKERS, workers);
+        final int connections = toInt(props, KEY_CONNECTIONS, 1);
+
+        final Set<String> targetDirs = new HashSet<>();
+        for (String name : names) {
+            Profile profile = new Profile();
+            profile.setName(name);
+
+            for (String key : DB_KEYS) {
+                String value = props.getProperty(name + "." + key);
+                if (value != null) {
+                    profile.getDb().setProperty(key, value.trim());
+                }
+            }
+            if (StringUtils.isBlank(profile.getDb().getProperty("url"))) {
+                throw new PojoWriterException("[profile=" + name + "] url is required");
+            }
+
+            UserPrefs prefs = defaults.copy(null);
+            String tables = props.getProperty(name + ".tables");
+            if (StringUtils.isNotBlank(tables)) {
+                prefs.setAllTables(false);
+                prefs.setTables(StringUtils.split(tables, ", "));
+            } else if (Boolean.parseBoolean(props.getProperty(name + ".all"))) {
+                prefs.setAllTables(true);
+            }
+            prefs.setPkg(props.getProperty(name + ".pkg", prefs.getPkg()));
+            prefs.setDir(props.getProperty(name + ".dir", prefs.getDir()));
+            prefs.setArchive(props.getProperty(name + ".archive", prefs.getArchive()));
+            prefs.setTypeRules(props.getProperty(name + ".types", prefs.getTypeRules()));
+            prefs.setNumThreads(toInt(props, name + ".threads", prefs.getNumThreads()));
+            try {
+                // profile settings combined with the command line options, e.g. archive with check
+                PrefsValidator.validate(prefs);
+            } catch (PojoWriterException e) {
+                throw new PojoWriterException("[profile=" + name + "] " + e.getMessage());
+            }
+            profile.setPrefs(prefs);
+
+            String target = prefs.getArchive() != null ? prefs.getArchive() : PojoSink.targetDir(prefs).toString();
+            if (!targetDirs.add(target)) {
+                throw new PojoWriterException("[profile=" + name + "] same target as another profile: " + target);
+            }
+
+            profile.setMaxConnections(toInt(props, name + "." + KEY_CONNECTIONS, connections));
+            profiles.add(profile);
+        }
+    }
+
+    private int toInt(final Properties props, final String key, final int defaultValue) throws PojoWriterException {
+        String value = props.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int n = Integer.parseInt(value.trim());
+            if (n < 1) {
+                throw new NumberFormatException();
+            }
+            return n;
+        } catch (NumberFormatException e) {
+            throw new PojoWriterException("invalid value of " + key + ": " + value);
+        }
+    }
+
+    public List<Profile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * max tables processed at the same time over all profiles
+     *
+     * @return
+     */
+    public int getWorkers() {
+        return workers;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * counts enumerated and processed tables of a run, for the periodic progress line
+ */
+public class Progress {
+
+    private final String name;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong enumerated = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private volatile boolean enumerationDone;
+
+    public Progress(final String name) {
+        this.name = name;
+    }
+
+    public void enumerated() {
+        enumerated.incrementAndGet();
+    }
+
+    public void enumerationDone() {
+        enumerationDone = true;
+    }
+
+    public void processed() {
+        processed.incrementAndGet();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * e.g. "tables: 1200/5000 (24%), 310.5 tables/sec, ETA 12s"
+     *
+     * @return
+     */
+    public String format() {
+        long done = processed.get();
+        long total = enumerated.get();
+        double seconds = Math.max(1, System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        double rate = done / seconds;
+
+        StringBuilder sb = new StringBuilder();
+        if (name != null) {
+            sb.append('[').append(name).append("] ");
+        }
+        sb.append("tables: ").append(done).append('/').append(total);
+        if (enumerationDone) {
+            sb.append(" (").append(total == 0 ? 100 : done * 100 / total).append("%)");
+        } else {
+            sb.append('+');
+        }
+        sb.append(", ").append(String.format("%.1f", rate)).append(" tables/sec, ETA ");
+        if (enumerationDone && rate > 0) {
+            sb.append(Math.round((total - done) / rate)).append('s');
+        } else {
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+}
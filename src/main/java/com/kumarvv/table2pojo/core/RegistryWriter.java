@@ -0,0 +1,472 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.DbColumn;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.text.StringEscapeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * collects table/column metadata from the writers and generates a single registry class
+ * with static lookups (table name to pojo class, column name to property, index and typed
+ * getter/setter method references, so values are read and written without reflection).
+ *
+ * an index file is kept next to the registry class, so that runs for a subset of tables
+ * merge into the existing registry instead of dropping the tables not processed in this run.
+ */
+public class RegistryWriter {
+
+    public static final String REGISTRY_CLASS = "TableRegistry";
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    /**
+     * max columns registered per nested init class, keeps each method well below the 64k bytecode limit
+     * and each constant pool (method references of the accessors) well below its 64k entries
+     */
+    private static final int MAX_COLUMNS_PER_INIT = 1000;
+
+    private static final String NEW_LINE = "\n";
+    private static final String TAB = "\t";
+
+    private final UserPrefs prefs;
+    private final PojoSink sink;
+    private final Map<String, Entry> entries = new ConcurrentSkipListMap<>();
+
+    /**
+     * requires user preferences and the sink receiving generated sources
+     *
+     * @param prefs
+     * @param sink
+     */
+    public RegistryWriter(final UserPrefs prefs, final PojoSink sink) {
+        this.prefs = prefs;
+        this.sink = sink;
+    }
+
+    /**
+     * register generated table, called from writer threads
+     *
+     * @param tableName
+     * @param pojoName
+     * @param columns
+     */
+    public void add(final String tableName, final String pojoName, final List<DbColumn> columns) {
+        if (StringUtils.isBlank(tableName) || StringUtils.isBlank(pojoName) || columns == null) {
+            return;
+        }
+
+        String[] names = new String[columns.size()];
+        String[] properties = new String[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            names[i] = columns.get(i).getName();
+            properties[i] = columns.get(i).getJavaProperty();
+        }
+        entries.put(tableName, new Entry(tableName, pojoName, names, properties));
+    }
+
+    /**
+     * number of tables registered in this run
+     *
+     * @return
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * merge with the existing index of the sink (unless all tables were processed), write index and registry class
+     *
+     * @return path of the registry class
+     * @throws PojoWriterException
+     */
+    public String write() throws PojoWriterException {
+        final Map<String, Entry> merged = new ConcurrentSkipListMap<>();
+        if (!prefs.isAllTables()) {
+            merged.putAll(readIndex(sink.read(REGISTRY_CLASS + INDEX_SUFFIX)));
+        }
+        merged.putAll(entries);
+
+        sink.write(REGISTRY_CLASS + INDEX_SUFFIX, generateIndex(merged));
+        return sink.write(REGISTRY_CLASS + ".java", generateRegistry(merged));
+    }
+
+    /**
+     * generate registry class source, entries are sorted by table name so the output is stable.
+     * tables are registered by nested init classes, each with its own constant pool. the accessors
+     * of a table are created by a switch case of its init class on first use, so the method
+     * references of tables never used are not linked (one lambda class each) at startup.
+     *
+     * @param merged
+     * @return
+     */
+    protected String generateRegistry(final Map<String, Entry> merged) {
+        final List<StringBuilder> inits = new ArrayList<>();
+        final List<StringBuilder> accessors = new ArrayList<>();
+        StringBuilder init = null;
+        StringBuilder accessor = null;
+        int initColumns = 0;
+        int initTables = 0;
+        for (Entry entry : merged.values()) {
+            if (init == null || initColumns + entry.columns.length > MAX_COLUMNS_PER_INIT) {
+                init = new StringBuilder();
+                accessor = new StringBuilder();
+                inits.add(init);
+                accessors.add(accessor);
+                initColumns = 0;
+                initTables = 0;
+            }
+            init.append("\t\t\tput(").append(quote(entry.tableName)).append(", ").append(entry.pojoName).append(".class, ");
+            appendArray(init, entry.columns);
+            init.append(", ");
+            appendArray(init, entry.properties);
+            init.append(", ").append(inits.size() - 1).append(", ").append(initTables).append(");").append(NEW_LINE);
+
+            accessor.append("\t\t\t\tcase ").append(initTables).append(":").append(NEW_LINE);
+            accessor.append("\t\t\t\t\treturn new ColumnMeta<?, ?>[] {");
+            for (int i = 0; i < entry.properties.length; i++) {
+                String methodName = StringUtils.capitalize(entry.properties[i]);
+                accessor.append(i > 0 ? "," : "").append(NEW_LINE);
+                accessor.append("\t\t\t\t\t\t\tcolumn(").append(entry.pojoName).append("::get").append(methodName)
+                        .append(", ").append(entry.pojoName).append("::set").append(methodName).append(")");
+            }
+            accessor.append("};").append(NEW_LINE);
+            initColumns += entry.columns.length;
+            initTables++;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(PojoSink.getPkg(prefs)).append(";").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("import java.util.HashMap;").append(NEW_LINE);
+        sb.append("import java.util.Locale;").append(NEW_LINE);
+        sb.append("import java.util.Map;").append(NEW_LINE);
+        sb.append("import java.util.function.BiConsumer;").append(NEW_LINE);
+        sb.append("import java.util.function.Function;").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("public final class ").append(REGISTRY_CLASS).append(" {").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        int capacity = Math.max(16, merged.size() * 4 / 3 + 1);
+        sb.append("\tprivate static final Map<String, TableMeta<?>> TABLES = new HashMap<>(").append(capacity).append(");").append(NEW_LINE);
+        sb.append("\tprivate static final Map<Class<?>, TableMeta<?>> CLASSES = new HashMap<>(").append(capacity).append(");").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\tstatic {").append(NEW_LINE);
+        for (int i = 0; i < inits.size(); i++) {
+            sb.append("\t\tInit").append(i).append(".init();").append(NEW_LINE);
+        }
+        sb.append("\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\tprivate ").append(REGISTRY_CLASS).append("() {").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\tpublic static TableMeta<?> get(String tableName) {").append(NEW_LINE);
+        sb.append("\t\treturn tableName == null ? null : TABLES.get(tableName.toUpperCase(Locale.ROOT));").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t@SuppressWarnings(\"unchecked\")").append(NEW_LINE);
+        sb.append("\tpublic static <T> TableMeta<T> get(Class<T> pojoClass) {").append(NEW_LINE);
+        sb.append("\t\treturn (TableMeta<T>) CLASSES.get(pojoClass);").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\tpublic static Class<?> getTableClass(String tableName) {").append(NEW_LINE);
+        sb.append("\t\tTableMeta<?> meta = get(tableName);").append(NEW_LINE);
+        sb.append("\t\treturn meta == null ? null : meta.getPojoClass();").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\tpublic static int size() {").append(NEW_LINE);
+        sb.append("\t\treturn TABLES.size();").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\tprivate static <T> void put(String tableName, Class<T> pojoClass, String[] columns, String[] properties,").append(NEW_LINE);
+        sb.append("\t\t\tint init, int table) {").append(NEW_LINE);
+        sb.append("\t\tTableMeta<T> meta = new TableMeta<>(tableName, pojoClass, columns, properties, init, table);").append(NEW_LINE);
+        sb.append("\t\tTABLES.put(tableName.toUpperCase(Locale.ROOT), meta);").append(NEW_LINE);
+        sb.append("\t\tCLASSES.put(pojoClass, meta);").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\tprivate static <T, V> ColumnMeta<T, V> column(Function<T, V> getter, BiConsumer<T, V> setter) {").append(NEW_LINE);
+        sb.append("\t\treturn new ColumnMeta<>(getter, setter);").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\tprivate static ColumnMeta<?, ?>[] accessors(int init, int table) {").append(NEW_LINE);
+        sb.append("\t\tswitch (init) {").append(NEW_LINE);
+        for (int i = 0; i < inits.size(); i++) {
+            sb.append("\t\t\tcase ").append(i).append(":").append(NEW_LINE);
+            sb.append("\t\t\t\treturn Init").append(i).append(".accessors(table);").append(NEW_LINE);
+        }
+        sb.append("\t\t\tdefault:").append(NEW_LINE);
+        sb.append("\t\t\t\treturn new ColumnMeta<?, ?>[0];").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        for (int i = 0; i < inits.size(); i++) {
+            sb.append(NEW_LINE);
+            sb.append("\tprivate static final class Init").append(i).append(" {").append(NEW_LINE);
+            sb.append(NEW_LINE);
+            sb.append("\t\tstatic void init() {").append(NEW_LINE);
+            sb.append(inits.get(i));
+            sb.append("\t\t}").append(NEW_LINE);
+            sb.append(NEW_LINE);
+            sb.append("\t\tstatic ColumnMeta<?, ?>[] accessors(int table) {").append(NEW_LINE);
+            sb.append("\t\t\tswitch (table) {").append(NEW_LINE);
+            sb.append(accessors.get(i));
+            sb.append("\t\t\t\tdefault:").append(NEW_LINE);
+            sb.append("\t\t\t\t\treturn new ColumnMeta<?, ?>[0];").append(NEW_LINE);
+            sb.append("\t\t\t}").append(NEW_LINE);
+            sb.append("\t\t}").append(NEW_LINE);
+            sb.append("\t}").append(NEW_LINE);
+        }
+        sb.append(NEW_LINE);
+        sb.append(generateTableMeta());
+        sb.append(NEW_LINE);
+        sb.append(generateColumnMeta());
+        sb.append("}");
+
+        return sb.toString();
+    }
+
+    /**
+     * generate nested TableMeta class
+     *
+     * @return
+     */
+    private String generateTableMeta() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\tpublic static final class TableMeta<T> {").append(NEW_LINE);
+        sb.append("\t\tprivate final String tableName;").append(NEW_LINE);
+        sb.append("\t\tprivate final Class<T> pojoClass;").append(NEW_LINE);
+        sb.append("\t\tprivate final String[] columns;").append(NEW_LINE);
+        sb.append("\t\tprivate final String[] properties;").append(NEW_LINE);
+        sb.append("\t\tprivate final String[] getters;").append(NEW_LINE);
+        sb.append("\t\tprivate final Map<String, Integer> index;").append(NEW_LINE);
+        sb.append("\t\tprivate final int init;").append(NEW_LINE);
+        sb.append("\t\tprivate final int table;").append(NEW_LINE);
+        sb.append("\t\tprivate volatile ColumnMeta<T, ?>[] accessors;").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tprivate TableMeta(String tableName, Class<T> pojoClass, String[] columns, String[] properties,").append(NEW_LINE);
+        sb.append("\t\t\t\tint init, int table) {").append(NEW_LINE);
+        sb.append("\t\t\tthis.tableName = tableName;").append(NEW_LINE);
+        sb.append("\t\t\tthis.pojoClass = pojoClass;").append(NEW_LINE);
+        sb.append("\t\t\tthis.columns = columns;").append(NEW_LINE);
+        sb.append("\t\t\tthis.properties = properties;").append(NEW_LINE);
+        sb.append("\t\t\tthis.init = init;").append(NEW_LINE);
+        sb.append("\t\t\tthis.table = table;").append(NEW_LINE);
+        sb.append("\t\t\tthis.getters = new String[properties.length];").append(NEW_LINE);
+        sb.append("\t\t\tthis.index = new HashMap<>(columns.length * 4 / 3 + 1);").append(NEW_LINE);
+        sb.append("\t\t\tfor (int i = 0; i < columns.length; i++) {").append(NEW_LINE);
+        sb.append("\t\t\t\tgetters[i] = \"get\" + Character.toUpperCase(properties[i].charAt(0)) + properties[i].substring(1);").append(NEW_LINE);
+        sb.append("\t\t\t\tindex.put(columns[i].toUpperCase(Locale.ROOT), i);").append(NEW_LINE);
+        sb.append("\t\t\t}").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic String getTableName() {").append(NEW_LINE);
+        sb.append("\t\t\treturn tableName;").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic Class<T> getPojoClass() {").append(NEW_LINE);
+        sb.append("\t\t\treturn pojoClass;").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic int getColumnCount() {").append(NEW_LINE);
+        sb.append("\t\t\treturn columns.length;").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic String getColumn(int columnIndex) {").append(NEW_LINE);
+        sb.append("\t\t\treturn columns[columnIndex];").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic int indexOf(String column) {").append(NEW_LINE);
+        sb.append("\t\t\tInteger i = column == null ? null : index.get(column.toUpperCase(Locale.ROOT));").append(NEW_LINE);
+        sb.append("\t\t\treturn i == null ? -1 : i;").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic String getProperty(String column) {").append(NEW_LINE);
+        sb.append("\t\t\tint i = indexOf(column);").append(NEW_LINE);
+        sb.append("\t\t\treturn i < 0 ? null : properties[i];").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic String getGetter(String column) {").append(NEW_LINE);
+        sb.append("\t\t\tint i = indexOf(column);").append(NEW_LINE);
+        sb.append("\t\t\treturn i < 0 ? null : getters[i];").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic ColumnMeta<T, ?> getColumnMeta(int columnIndex) {").append(NEW_LINE);
+        sb.append("\t\t\treturn accessors()[columnIndex];").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic ColumnMeta<T, ?> getColumnMeta(String column) {").append(NEW_LINE);
+        sb.append("\t\t\tint i = indexOf(column);").append(NEW_LINE);
+        sb.append("\t\t\treturn i < 0 ? null : accessors()[i];").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic Object getValue(T pojo, String column) {").append(NEW_LINE);
+        sb.append("\t\t\tColumnMeta<T, ?> meta = getColumnMeta(column);").append(NEW_LINE);
+        sb.append("\t\t\tif (meta == null) {").append(NEW_LINE);
+        sb.append("\t\t\t\tthrow new IllegalArgumentException(\"unknown column of \" + tableName + \": \" + column);").append(NEW_LINE);
+        sb.append("\t\t\t}").append(NEW_LINE);
+        sb.append("\t\t\treturn meta.get(pojo);").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\t@SuppressWarnings(\"unchecked\")").append(NEW_LINE);
+        sb.append("\t\tpublic void setValue(T pojo, String column, Object value) {").append(NEW_LINE);
+        sb.append("\t\t\tColumnMeta<T, Object> meta = (ColumnMeta<T, Object>) getColumnMeta(column);").append(NEW_LINE);
+        sb.append("\t\t\tif (meta == null) {").append(NEW_LINE);
+        sb.append("\t\t\t\tthrow new IllegalArgumentException(\"unknown column of \" + tableName + \": \" + column);").append(NEW_LINE);
+        sb.append("\t\t\t}").append(NEW_LINE);
+        sb.append("\t\t\tmeta.set(pojo, value);").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\t@SuppressWarnings(\"unchecked\")").append(NEW_LINE);
+        sb.append("\t\tprivate ColumnMeta<T, ?>[] accessors() {").append(NEW_LINE);
+        sb.append("\t\t\tColumnMeta<T, ?>[] result = accessors;").append(NEW_LINE);
+        sb.append("\t\t\tif (result == null) {").append(NEW_LINE);
+        sb.append("\t\t\t\tresult = (ColumnMeta<T, ?>[]) ").append(REGISTRY_CLASS).append(".accessors(init, table);").append(NEW_LINE);
+        sb.append("\t\t\t\taccessors = result;").append(NEW_LINE);
+        sb.append("\t\t\t}").append(NEW_LINE);
+        sb.append("\t\t\treturn result;").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        return sb.toString();
+    }
+
+    /**
+     * generate nested ColumnMeta class, typed getter/setter of one column
+     *
+     * @return
+     */
+    private String generateColumnMeta() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("\tpublic static final class ColumnMeta<T, V> {").append(NEW_LINE);
+        sb.append("\t\tprivate final Function<T, V> getter;").append(NEW_LINE);
+        sb.append("\t\tprivate final BiConsumer<T, V> setter;").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tprivate ColumnMeta(Function<T, V> getter, BiConsumer<T, V> setter) {").append(NEW_LINE);
+        sb.append("\t\t\tthis.getter = getter;").append(NEW_LINE);
+        sb.append("\t\t\tthis.setter = setter;").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic V get(T pojo) {").append(NEW_LINE);
+        sb.append("\t\t\treturn getter.apply(pojo);").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic void set(T pojo, V value) {").append(NEW_LINE);
+        sb.append("\t\t\tsetter.accept(pojo, value);").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic Function<T, V> getGetter() {").append(NEW_LINE);
+        sb.append("\t\t\treturn getter;").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append(NEW_LINE);
+        sb.append("\t\tpublic BiConsumer<T, V> getSetter() {").append(NEW_LINE);
+        sb.append("\t\t\treturn setter;").append(NEW_LINE);
+        sb.append("\t\t}").append(NEW_LINE);
+        sb.append("\t}").append(NEW_LINE);
+        return sb.toString();
+    }
+
+    /**
+     * parse index file content
+     *
+     * @param content index file content, null if there is no index
+     * @return
+     */
+    protected Map<String, Entry> readIndex(final String content) {
+        final Map<String, Entry> existing = new ConcurrentSkipListMap<>();
+        if (content == null) {
+            return existing;
+        }
+
+        for (String line : content.split(NEW_LINE)) {
+            String[] parts = line.split(TAB);
+            if (parts.length < 2 || parts.length % 2 != 0) {
+                continue;
+            }
+            int count = (parts.length - 2) / 2;
+            String[] columns = new String[count];
+            String[] properties = new String[count];
+            for (int i = 0; i < count; i++) {
+                columns[i] = parts[2 + i * 2];
+                properties[i] = parts[3 + i * 2];
+            }
+            existing.put(parts[0], new Entry(parts[0], parts[1], columns, properties));
+        }
+        return existing;
+    }
+
+    /**
+     * index file content, one table per line: table, pojo, then column/property pairs
+     *
+     * @param merged
+     * @return
+     */
+    protected String generateIndex(final Map<String, Entry> merged) {
+        StringBuilder sb = new StringBuilder();
+        merged.values().forEach(entry -> {
+            sb.append(entry.tableName).append(TAB).append(entry.pojoName);
+            for (int i = 0; i < entry.columns.length; i++) {
+                sb.append(TAB).append(entry.columns[i]).append(TAB).append(entry.properties[i]);
+            }
+            sb.append(NEW_LINE);
+        });
+        return sb.toString();
+    }
+
+    /**
+     * java string array literal
+     *
+     * @param sb
+     * @param values
+     */
+    private void appendArray(final StringBuilder sb, final String[] values) {
+        sb.append("new String[] {");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(quote(values[i]));
+        }
+        sb.append("}");
+    }
+
+    private String quote(final String str) {
+        return "\"" + StringEscapeUtils.escapeJava(str) + "\"";
+    }
+
+    /**
+     * registered table
+     */
+    protected static class Entry {
+        private final String tableName;
+        private final String pojoName;
+        private final String[] columns;
+        private final String[] properties;
+
+        Entry(String tableName, String pojoName, String[] columns, String[] properties) {
+            this.tableName = tableName;
+            this.pojoName = pojoName;
+            this.columns = columns;
+            this.properties = properties;
+        }
+    }
+}
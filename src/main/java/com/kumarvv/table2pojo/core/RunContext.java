@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.GenerateResult;
+
+import java.sql.Connection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+/**
+ * collaborators shared by the reader and writer threads of one run, optional ones are null when not enabled
+ */
+public class RunContext {
+    private final GenerateResult result = new GenerateResult();
+    private final StringInterner interner = new StringInterner();
+    private final String name;
+    private final Progress progress;
+    private Semaphore workers;
+    private PojoSink sink;
+    private RegistryWriter registry;
+    private PojoDeduplicator dedup;
+    private KeyReader keys;
+    private TypeResolver types;
+    private Callable<Connection> connector;
+
+    public GenerateResult getResult() {
+        return result;
+    }
+
+    /**
+     * @param name name of the run in progress lines, null for a single run
+     */
+    public RunContext(String name) {
+        this.name = name;
+        this.progress = new Progress(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * thread name within the run, prefixed with the run name when running several profiles
+     *
+     * @param threadName
+     * @return
+     */
+    public String threadName(String threadName) {
+        return name == null ? threadName : name + "/" + threadName;
+    }
+
+    /**
+     * worker budget shared by the writer threads of concurrent runs, null for no limit
+     *
+     * @return
+     */
+    public Semaphore getWorkers() {
+        return workers;
+    }
+    public void setWorkers(Semaphore workers) {
+        this.workers = workers;
+    }
+
+    public Progress getProgress() {
+        return progress;
+    }
+
+    public StringInterner getInterner() {
+        return interner;
+    }
+
+    public PojoSink getSink() {
+        return sink;
+    }
+    public void setSink(PojoSink sink) {
+        this.sink = sink;
+    }
+
+    public RegistryWriter getRegistry() {
+        return registry;
+    }
+    public void setRegistry(RegistryWriter registry) {
+        this.registry = registry;
+    }
+
+    public PojoDeduplicator getDedup() {
+        return dedup;
+    }
+    public void setDedup(PojoDeduplicator dedup) {
+        this.dedup = dedup;
+    }
+
+    public TypeResolver getTypes() {
+        return types;
+    }
+    public void setTypes(TypeResolver types) {
+        this.types = types;
+    }
+
+    /**
+     * opens additional connections for the scheduler, null to share the main connection
+     *
+     * @return
+     */
+    public Callable<Connection> getConnector() {
+        return connector;
+    }
+    public void setConnector(Callable<Connection> connector) {
+        this.connector = connector;
+    }
+
+    public KeyReader getKeys() {
+        return keys;
+    }
+    public void setKeys(KeyReader keys) {
+        this.keys = keys;
+    }
+}
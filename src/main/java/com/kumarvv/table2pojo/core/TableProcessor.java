@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.jfr.Recorder;
+import com.kumarvv.table2pojo.model.DbColumn;
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * processes one table: column metadata, keys, pojo generation and registry. used by the writer
+ * threads and by the scheduler tasks, safe to call concurrently.
+ */
+public class TableProcessor {
+
+    private static final String SQL_ALL = "select * from %s where 1>2";
+
+    /**
+     * java type of columns without a matching type rule
+     */
+    private static final String FALLBACK_TYPE = "Object";
+
+    private final UserPrefs prefs;
+    private final RunContext context;
+    private final PojoGenerator generator;
+
+    /**
+     * requires user preferences and the run context
+     *
+     * @param prefs
+     * @param context shared collaborators and result of the run
+     */
+    public TableProcessor(final UserPrefs prefs, final RunContext context) {
+        this.prefs = prefs;
+        this.context = context;
+        this.generator = new PojoGenerator(prefs, context);
+    }
+
+    /**
+     * read column metadata of the table and generate its pojo
+     *
+     * @param conn
+     * @param tableName
+     */
+    public void process(final Connection conn, final String tableName) {
+        if (conn == null || StringUtils.isEmpty(tableName)) {
+            return;
+        }
+
+        long metadataStart = System.nanoTime();
+        final Object event = Recorder.beginMetadataFetched();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(String.format(SQL_ALL, tableName));) {
+
+            if (rs == null) {
+                throw new PojoWriterException("table not found");
+            }
+
+            final ResultSetMetaData meta = rs.getMetaData();
+
+            final List<DbColumn> columns = new ArrayList<>();
+            int count = meta.getColumnCount();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                DbColumn column = buildDbColumn(tableName, meta, i);
+                if (column != null) {
+                    columns.add(column);
+                }
+            }
+
+            if (count == 0) {
+                throw new PojoWriterException("no columns found in table");
+            }
+            context.getResult().addPhaseNanos(GenerateResult.Phase.METADATA, System.nanoTime() - metadataStart);
+            Recorder.commitMetadataFetched(event, tableName, count);
+
+            if (context.getKeys() != null) {
+                context.getKeys().apply(conn, tableName, columns);
+            }
+
+            if (context.getDedup() != null) {
+                context.getDedup().add(tableName, columns);
+                info("[table=" + tableName + "] collected for deduplication");
+            } else {
+                String pojoPath = generator.generatePojo(tableName, columns);
+                context.getResult().addFile(pojoPath);
+                info("[table=" + tableName + "] generated pojo file: " + pojoPath);
+            }
+
+            if (context.getRegistry() != null) {
+                context.getRegistry().add(tableName, generator.toMethodName(tableName), columns);
+            }
+            context.getResult().addTable(tableName);
+
+        } catch (Exception e) {
+            String msg = StringUtils.trim(e.getMessage());
+            context.getResult().addError(tableName, msg);
+            error("[table=" + tableName + "] " + msg);
+        }
+    }
+
+    /**
+     * build column using result meta
+     *
+     * @param tableName
+     * @param meta
+     * @param columnId
+     * @return
+     */
+    private DbColumn buildDbColumn(String tableName, ResultSetMetaData meta, int columnId) throws PojoWriterException {
+        if (meta == null) {
+            return null;
+        }
+
+        try {
+            final StringInterner interner = context.getInterner();
+            DbColumn column = new DbColumn();
+            column.setName(meta.getColumnName(columnId));
+            column.setType(meta.getColumnType(columnId));
+            column.setTypeName(interner.intern(meta.getColumnTypeName(columnId)));
+            column.setPrecision(meta.getPrecision(columnId));
+            column.setScale(meta.getScale(columnId));
+            if (!prefs.isLowMemory()) {
+                // not used for generation, low memory mode columns have no details object
+                column.setCatelogName(interner.intern(meta.getCatalogName(columnId)));
+                column.setLabel(meta.getColumnLabel(columnId));
+                column.setClassName(interner.intern(meta.getColumnClassName(columnId)));
+                column.setDisplaySize(meta.getColumnDisplaySize(columnId));
+                column.setSchemaName(interner.intern(meta.getSchemaName(columnId)));
+                column.setTableName(meta.getTableName(columnId));
+            }
+
+            String javaType = generator.getJavaType(column);
+            if (javaType == null) {
+                javaType = FALLBACK_TYPE;
+                error("[table=" + tableName + "] no type rule matches column " + column.getName() + " (type "
+                        + column.getType() + " " + column.getTypeName() + "), using " + FALLBACK_TYPE);
+            }
+            column.setJavaType(interner.intern(javaType));
+            column.setJavaProperty(generator.toCamelCase(column.getName()));
+
+            return column;
+        } catch (SQLException sqle) {
+            throw new PojoWriterException(sqle.getMessage());
+        }
+    }
+
+    /**
+     * error print
+     *
+     * @param msg
+     */
+    private void error(String msg) {
+        Log.error(Thread.currentThread().getName(), msg);
+    }
+
+    /**
+     * info print
+     *
+     * @param msg
+     */
+    private void info(String msg) {
+        Log.info(Thread.currentThread().getName(), msg);
+    }
+}
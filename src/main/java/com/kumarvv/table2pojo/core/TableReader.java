@@ -18,12 +18,13 @@
  */
 package com.kumarvv.table2pojo.core;
 
+import com.kumarvv.table2pojo.jfr.Recorder;
+import com.kumarvv.table2pojo.model.GenerateResult;
 import com.kumarvv.table2pojo.model.UserPrefs;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Arrays;
 import java.util.concurrent.BlockingQueue;
 import java.util.stream.IntStream;
 
@@ -31,20 +32,25 @@ import static com.kumarvv.table2pojo.model.UserPrefs.DONE;
 
 public class TableReader extends Thread {
 
+    private static final int FETCH_SIZE = 500;
+
     private final UserPrefs prefs;
     private final Connection conn;
     private final BlockingQueue<String> queue;
+    private final RunContext context;
 
     /**
      * requires connection and table
      * @param prefs
      * @param conn
+     * @param context shared collaborators and result of the run
      */
-    public TableReader(final UserPrefs prefs, final Connection conn, final BlockingQueue<String> queue) {
+    public TableReader(final UserPrefs prefs, final Connection conn, final BlockingQueue<String> queue, final RunContext context) {
         this.prefs = prefs;
         this.conn = conn;
         this.queue = queue;
-        this.setName("reader-0");
+        this.context = context;
+        this.setName(context.threadName("reader-0"));
     }
 
     /**
@@ -52,16 +58,19 @@ public class TableReader extends Thread {
      */
     @Override
     public void run() {
-        if (prefs == null || conn == null || queue == null) {
+        if (prefs == null || conn == null || queue == null || context == null) {
             throw new IllegalArgumentException("null values");
         }
 
+        long start = System.nanoTime();
         if (prefs.isAllTables()) {
             loadTablesDb();
         } else {
             loadTablesPrefs();
         }
+        context.getResult().addPhaseNanos(GenerateResult.Phase.ENUMERATE, System.nanoTime() - start);
 
+        context.getProgress().enumerationDone();
         info("DONE");
     }
 
@@ -71,10 +80,20 @@ public class TableReader extends Thread {
     protected void loadTablesDb() {
         info("reading all tables from database...");
         try (ResultSet rs = conn.getMetaData().getTables(null, null, "%", new String[] {"TABLE"});){
+            rs.setFetchSize(FETCH_SIZE);
             while (rs.next()) {
-                queue.offer(rs.getString(3));
+                // covers reading the row, not the wait for queue space (that is the writers)
+                Object event = Recorder.beginTableEnumerated();
+                String table = rs.getString(3);
+                Recorder.commitTableEnumerated(event, table);
+
+                // blocks when the writers fall behind a bounded queue, pacing the catalog cursor
+                if (!enqueue(table)) {
+                    break;
+                }
             }
         } catch (SQLException sqle) {
+            context.getResult().addError(getName(), sqle.getMessage());
             error(sqle.getMessage());
         } finally {
             addDoneObjects();
@@ -87,7 +106,11 @@ public class TableReader extends Thread {
     protected void loadTablesPrefs() {
         info("reading tables list from preferences...");
         try {
-            Arrays.stream(prefs.getTables()).forEach(queue::offer);
+            for (String table : prefs.getTables()) {
+                if (!enqueue(table)) {
+                    break;
+                }
+            }
         } finally {
             addDoneObjects();
         }
@@ -97,7 +120,25 @@ public class TableReader extends Thread {
      * add DONE objects to close the running writers
      */
     protected void addDoneObjects() {
-        IntStream.range(0, prefs.getNumThreads()).forEach(i -> queue.offer(DONE));
+        IntStream.range(0, prefs.getNumThreads()).forEach(i -> enqueue(DONE));
+    }
+
+    /**
+     * put table into the queue, waiting for space if the queue is bounded
+     * @param table
+     * @return false if interrupted
+     */
+    protected boolean enqueue(final String table) {
+        try {
+            queue.put(table);
+            if (!DONE.equals(table)) {
+                context.getProgress().enumerated();
+            }
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     /**
@@ -105,7 +146,7 @@ public class TableReader extends Thread {
      * @param msg
      */
     private void error(String msg) {
-        System.out.println("(" + getName() + ") ERROR: " + msg);
+        Log.error(getName(), msg);
     }
 
     /**
@@ -113,6 +154,6 @@ public class TableReader extends Thread {
      * @param msg
      */
     private void info(String msg) {
-        System.out.println("(" + getName() + ") INFO: " + msg);
+        Log.info(getName(), msg);
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.apache.commons.lang3.StringUtils;
+
+import java.sql.Connection;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.kumarvv.table2pojo.model.UserPrefs.DONE;
+
+/**
+ * executor based alternative to the writer threads: one task per table, in-flight tasks bounded by
+ * the connection pool. tasks run on virtual threads when the JVM supports them (java 21+), on a
+ * platform thread pool of the pool size otherwise.
+ */
+public class TableScheduler {
+
+    private final BlockingQueue<String> queue;
+    private final RunContext context;
+    private final ConnectionPool pool;
+    private final TableProcessor processor;
+    private final String name;
+
+    /**
+     * requires the table queue filled by the reader and the connection pool
+     *
+     * @param prefs
+     * @param queue
+     * @param context shared collaborators and result of the run
+     * @param pool
+     */
+    public TableScheduler(final UserPrefs prefs, final BlockingQueue<String> queue, final RunContext context,
+                          final ConnectionPool pool) {
+        this.queue = queue;
+        this.context = context;
+        this.pool = pool;
+        this.processor = new TableProcessor(prefs, context);
+        this.name = context.threadName("scheduler");
+    }
+
+    /**
+     * dispatch tables until the reader is done, waits for all tasks to finish
+     */
+    public void run() {
+        final ExecutorService executor = newExecutor();
+        try {
+            while (true) {
+                String table = queue.take();
+                if (StringUtils.isBlank(table) || DONE.equalsIgnoreCase(table)) {
+                    break;
+                }
+
+                // blocks while all connections are in use, bounding the tasks in flight
+                final Connection conn = pool.acquire();
+                executor.execute(() -> {
+                    try {
+                        process(conn, table);
+                    } finally {
+                        pool.release(conn);
+                    }
+                });
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        info("DONE");
+    }
+
+    /**
+     * process table within the worker budget
+     *
+     * @param conn
+     * @param table
+     */
+    private void process(final Connection conn, final String table) {
+        final Semaphore workers = context.getWorkers();
+        try {
+            if (workers != null) {
+                workers.acquire();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            processor.process(conn, table);
+            context.getProgress().processed();
+        } finally {
+            if (workers != null) {
+                workers.release();
+            }
+        }
+    }
+
+    /**
+     * virtual thread per task executor if available, looked up reflectively as the code is compiled
+     * for java 11. falls back to a fixed pool of platform threads (also on java 19/20 without preview)
+     *
+     * @return
+     */
+    protected ExecutorService newExecutor() {
+        final String prefix = context.threadName("task-");
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+            info("virtual thread per table, " + pool.size() + " connections");
+            return executor;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // no virtual threads in this JVM
+        }
+
+        final AtomicInteger count = new AtomicInteger();
+        info("platform thread pool, " + pool.size() + " threads/connections");
+        return Executors.newFixedThreadPool(pool.size(), r -> {
+            Thread thread = new Thread(r, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * info print
+     *
+     * @param msg
+     */
+    private void info(String msg) {
+        Log.info(name, msg);
+    }
+}
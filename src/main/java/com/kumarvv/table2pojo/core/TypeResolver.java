@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.DbColumn;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.JDBCType;
+import java.util.*;
+
+/**
+ * maps columns to java types using rules, first matching rule wins. one rule per line:
+ *
+ * <pre>
+ * # conditions (all optional, ; separated) => java type
+ * type=NUMERIC; precision=1; scale=0       => Boolean
+ * type=NUMERIC; precision=2..9; scale=0    => Integer
+ * typeName=TIMESTAMP WITH*TIME ZONE        => java.time.OffsetDateTime
+ * column=*_DT; type=DATE                   => java.time.LocalDate
+ * </pre>
+ *
+ * type is a java.sql.Types name or a (vendor) type code, typeName and column are case insensitive
+ * patterns with * and ?, precision and scale are values or ranges (2..9, 10.., ..4). java types in a
+ * package other than java.lang are imported. rules of the file are followed by the default rules,
+ * columns matching no rule are generated as Object.
+ *
+ * rules are compiled into arrays: per type code the indexes of the rules that can match it, and the
+ * conditions of each rule as primitive ranges and char patterns, so resolving a column allocates nothing.
+ */
+public class TypeResolver {
+
+    public static final String[] DEFAULT_RULES = {
+            "type=NUMERIC; precision=1; scale=0 => Boolean",
+            "type=NUMERIC; scale=0 => Long",
+            "type=CHAR => String",
+            "type=VARCHAR => String",
+            "type=LONGVARCHAR => String",
+            "type=NUMERIC => java.math.BigDecimal",
+            "type=DECIMAL => java.math.BigDecimal",
+            "type=BIT => Boolean",
+            "type=TINYINT => Integer",
+            "type=SMALLINT => Integer",
+            "type=INTEGER => Integer",
+            "type=BIGINT => Long",
+            "type=REAL => Float",
+            "type=FLOAT => Double",
+            "type=DOUBLE => Double",
+            "type=BINARY => byte[]",
+            "type=VARBINARY => byte[]",
+            "type=LONGVARBINARY => byte[]",
+            "type=DATE => java.util.Date",
+            "type=TIME => java.sql.Time",
+            "type=TIMESTAMP => java.sql.Timestamp",
+            "type=CLOB => java.sql.Clob",
+            "type=BLOB => java.sql.Blob",
+            "type=ARRAY => java.sql.Array",
+            "type=STRUCT => java.sql.Struct",
+            "type=REF => java.sql.Ref",
+            "type=JAVA_OBJECT => Object",
+    };
+
+    private static final String ARROW = "=>";
+    private static final int ANY = Integer.MIN_VALUE;
+
+    private static TypeResolver defaults;
+
+    // conditions and result per rule
+    private final int[] precisionMin;
+    private final int[] precisionMax;
+    private final int[] scaleMin;
+    private final int[] scaleMax;
+    private final char[][] typeNames;
+    private final char[][] columns;
+    private final String[] javaTypes;
+
+    // candidate rules per type code (index type - typeOffset), rules without type for other codes
+    private final int typeOffset;
+    private final int[][] rulesByType;
+    private final int[] anyTypeRules;
+
+    private final Map<String, String> imports = new HashMap<>();
+
+    private TypeResolver(final List<Rule> rules) {
+        final int n = rules.size();
+        precisionMin = new int[n];
+        precisionMax = new int[n];
+        scaleMin = new int[n];
+        scaleMax = new int[n];
+        typeNames = new char[n][];
+        columns = new char[n][];
+        javaTypes = new String[n];
+
+        int minType = Integer.MAX_VALUE;
+        int maxType = Integer.MIN_VALUE;
+        final List<Integer> anyType = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Rule rule = rules.get(i);
+            precisionMin[i] = rule.precisionMin;
+            precisionMax[i] = rule.precisionMax;
+            scaleMin[i] = rule.scaleMin;
+            scaleMax[i] = rule.scaleMax;
+            typeNames[i] = rule.typeName;
+            columns[i] = rule.column;
+            javaTypes[i] = addImport(rule.javaType);
+            if (rule.type == ANY) {
+                anyType.add(i);
+            } else {
+                minType = Math.min(minType, rule.type);
+                maxType = Math.max(maxType, rule.type);
+            }
+        }
+
+        anyTypeRules = toArray(anyType);
+        if (minType > maxType) {
+            typeOffset = 0;
+            rulesByType = new int[0][];
+            return;
+        }
+
+        // dense table over the used type codes, rules keep their order
+        typeOffset = minType;
+        rulesByType = new int[maxType - minType + 1][];
+        final Map<Integer, List<Integer>> byType = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            int type = rules.get(i).type;
+            if (type != ANY) {
+                byType.computeIfAbsent(type, t -> new ArrayList<>());
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int type = rules.get(i).type;
+            if (type == ANY) {
+                for (List<Integer> list : byType.values()) {
+                    list.add(i);
+                }
+            } else {
+                byType.get(type).add(i);
+            }
+        }
+        for (int i = 0; i < rulesByType.length; i++) {
+            List<Integer> list = byType.get(i + typeOffset);
+            rulesByType[i] = list == null ? anyTypeRules : toArray(list);
+        }
+    }
+
+    /**
+     * default rules, same as the built in mapping
+     *
+     * @return
+     */
+    public static synchronized TypeResolver defaults() {
+        if (defaults == null) {
+            try {
+                defaults = compile(Collections.emptyList());
+            } catch (PojoWriterException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        return defaults;
+    }
+
+    /**
+     * rules of the file followed by the default rules, defaults only if no file is given
+     *
+     * @param rulesFile
+     * @return
+     * @throws PojoWriterException
+     */
+    public static TypeResolver load(final String rulesFile) throws PojoWriterException {
+        if (StringUtils.isBlank(rulesFile)) {
+            return defaults();
+        }
+        try {
+            return compile(Files.readAllLines(Paths.get(rulesFile), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new PojoWriterException("could not read type rules " + rulesFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * compile rule lines, followed by the default rules
+     *
+     * @param lines
+     * @return
+     * @throws PojoWriterException
+     */
+    public static TypeResolver compile(final List<String> lines) throws PojoWriterException {
+        final List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            Rule rule = parse(lines.get(i), "line " + (i + 1));
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        for (String line : DEFAULT_RULES) {
+            rules.add(parse(line, "default rule"));
+        }
+        return new TypeResolver(rules);
+    }
+
+    /**
+     * java type (simple name) of the column, null if no rule matches (the caller falls back to Object)
+     *
+     * @param column
+     * @return
+     */
+    public String resolve(final DbColumn column) {
+        if (column == null) {
+            return null;
+        }
+
+        final int slot = column.getType() - typeOffset;
+        final int[] candidates = slot >= 0 && slot < rulesByType.length ? rulesByType[slot] : anyTypeRules;
+        final int precision = column.getPrecision();
+        final int scale = column.getScale();
+
+        for (int rule : candidates) {
+            if (precision < precisionMin[rule] || precision > precisionMax[rule]
+                    || scale < scaleMin[rule] || scale > scaleMax[rule]) {
+                continue;
+            }
+            if (typeNames[rule] != null && !matches(typeNames[rule], column.getTypeName())) {
+                continue;
+            }
+            if (columns[rule] != null && !matches(columns[rule], column.getName())) {
+                continue;
+            }
+            return javaTypes[rule];
+        }
+        return null;
+    }
+
+    /**
+     * fully qualified name to import for the java type, null if no import is needed
+     *
+     * @param javaType simple name
+     * @return
+     */
+    public String getImport(final String javaType) {
+        return javaType == null ? null : imports.get(javaType);
+    }
+
+    /**
+     * register import of a qualified java type. the first type of a simple name is imported,
+     * others (e.g. java.util.Date after java.sql.Date) are used fully qualified
+     *
+     * @param javaType
+     * @return name to use in the pojo
+     */
+    private String addImport(final String javaType) {
+        int dot = javaType.lastIndexOf('.');
+        if (dot < 0) {
+            return javaType;
+        }
+
+        String simpleName = javaType.substring(dot + 1);
+        String pkg = javaType.substring(0, dot);
+        if ("java.lang".equals(pkg)) {
+            return simpleName;
+        }
+
+        String existing = imports.putIfAbsent(simpleName, javaType);
+        return existing == null || existing.equals(javaType) ? simpleName : javaType;
+    }
+
+    /**
+     * parse rule line
+     *
+     * @param line
+     * @param source line number for error messages
+     * @return rule, null for blank and comment lines
+     * @throws PojoWriterException
+     */
+    private static Rule parse(final String line, final String source) throws PojoWriterException {
+        String text = StringUtils.trimToEmpty(line);
+        if (text.isEmpty() || text.startsWith("#")) {
+            return null;
+        }
+
+        int arrow = text.lastIndexOf(ARROW);
+        if (arrow < 0) {
+            throw new PojoWriterException("type rules " + source + ": missing " + ARROW + " java type");
+        }
+
+        Rule rule = new Rule();
+        rule.javaType = text.substring(arrow + ARROW.length()).trim();
+        if (rule.javaType.isEmpty()) {
+            throw new PojoWriterException("type rules " + source + ": missing java type");
+        }
+
+        for (String condition : text.substring(0, arrow).split(";")) {
+            if (StringUtils.isBlank(condition) || "*".equals(condition.trim())) {
+                continue;
+            }
+            int eq = condition.indexOf('=');
+            if (eq < 0) {
+                throw new PojoWriterException("type rules " + source + ": invalid condition \"" + condition.trim() + "\"");
+            }
+            String key = condition.substring(0, eq).trim();
+            String value = condition.substring(eq + 1).trim();
+            try {
+                switch (key) {
+                    case "type":
+                        rule.type = toType(value);
+                        break;
+                    case "typeName":
+                        rule.typeName = toPattern(value);
+                        break;
+                    case "column":
+                        rule.column = toPattern(value);
+                        break;
+                    case "precision":
+                        rule.precisionMin = toMin(value);
+                        rule.precisionMax = toMax(value);
+                        checkRange(key, value, rule.precisionMin, rule.precisionMax);
+                        break;
+                    case "scale":
+                        rule.scaleMin = toMin(value);
+                        rule.scaleMax = toMax(value);
+                        checkRange(key, value, rule.scaleMin, rule.scaleMax);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown condition " + key);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new PojoWriterException("type rules " + source + ": " + e.getMessage());
+            }
+        }
+        return rule;
+    }
+
+    private static int toType(final String value) {
+        if ("*".equals(value)) {
+            return ANY;
+        }
+        if (value.matches("-?\\d+")) {
+            return Integer.parseInt(value);
+        }
+        try {
+            return JDBCType.valueOf(value.toUpperCase(Locale.ROOT)).getVendorTypeNumber();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown type " + value);
+        }
+    }
+
+    private static char[] toPattern(final String value) {
+        return "*".equals(value) ? null : value.toUpperCase(Locale.ROOT).toCharArray();
+    }
+
+    private static int toMin(final String value) {
+        int range = value.indexOf("..");
+        String min = range < 0 ? value : value.substring(0, range);
+        return min.isEmpty() ? Integer.MIN_VALUE : Integer.parseInt(min.trim());
+    }
+
+    private static int toMax(final String value) {
+        int range = value.indexOf("..");
+        String max = range < 0 ? value : value.substring(range + 2);
+        return max.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(max.trim());
+    }
+
+    /**
+     * reject empty ranges, e.g. 2..1 never matches
+     *
+     * @param key
+     * @param value
+     * @param min
+     * @param max
+     */
+    private static void checkRange(final String key, final String value, final int min, final int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("empty " + key + " range " + value);
+        }
+    }
+
+    /**
+     * case insensitive match of * and ? patterns (pattern is upper case), backtracking to the last *
+     *
+     * @param pattern
+     * @param str
+     * @return
+     */
+    static boolean matches(final char[] pattern, final String str) {
+        if (str == null) {
+            return false;
+        }
+
+        int p = 0;
+        int s = 0;
+        int star = -1;
+        int starMatch = 0;
+        final int len = str.length();
+        while (s < len) {
+            char c = Character.toUpperCase(str.charAt(s));
+            if (p < pattern.length && (pattern[p] == '?' || pattern[p] == c)) {
+                p++;
+                s++;
+            } else if (p < pattern.length && pattern[p] == '*') {
+                star = p++;
+                starMatch = s;
+            } else if (star >= 0) {
+                p = star + 1;
+                s = ++starMatch;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length && pattern[p] == '*') {
+            p++;
+        }
+        return p == pattern.length;
+    }
+
+    private static int[] toArray(final List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * parsed rule
+     */
+    private static class Rule {
+        private int type = ANY;
+        private char[] typeName;
+        private char[] column;
+        private int precisionMin = Integer.MIN_VALUE;
+        private int precisionMax = Integer.MAX_VALUE;
+        private int scaleMin = Integer.MIN_VALUE;
+        private int scaleMax = Integer.MAX_VALUE;
+        private String javaType;
+    }
+}
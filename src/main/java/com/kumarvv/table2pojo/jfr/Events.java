@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * creates and commits the events, only loaded through {@link Recorder} while recording
+ */
+final class Events {
+
+    private Events() {
+    }
+
+    /**
+     * follow the recording state, including recordings started before (-XX:StartFlightRecording)
+     */
+    static void listen() {
+        if (!FlightRecorder.isAvailable()) {
+            return;
+        }
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(final Recording recording) {
+                Recorder.setEnabled(isRecording());
+            }
+        });
+        if (FlightRecorder.isInitialized()) {
+            Recorder.setEnabled(isRecording());
+        }
+    }
+
+    private static boolean isRecording() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(recording -> recording.getState() == RecordingState.RUNNING);
+    }
+
+    static void startRecording(final Path file) throws Exception {
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("table2pojo");
+        recording.setDestination(file);
+        recording.setDumpOnExit(true);
+        recording.start();
+    }
+
+    static Object beginTableEnumerated() {
+        TableEnumeratedEvent event = new TableEnumeratedEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitTableEnumerated(final Object begun, final String table) {
+        TableEnumeratedEvent event = (TableEnumeratedEvent) begun;
+        event.end();
+        if (event.shouldCommit()) {
+            event.table = table;
+            event.commit();
+        }
+    }
+
+    static Object beginMetadataFetched() {
+        MetadataFetchedEvent event = new MetadataFetchedEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitMetadataFetched(final Object begun, final String table, final int columnCount) {
+        MetadataFetchedEvent event = (MetadataFetchedEvent) begun;
+        event.end();
+        if (event.shouldCommit()) {
+            event.table = table;
+            event.columnCount = columnCount;
+            event.commit();
+        }
+    }
+
+    static Object beginRendered() {
+        RenderedEvent event = new RenderedEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitRendered(final Object begun, final String pojo, final String content) {
+        RenderedEvent event = (RenderedEvent) begun;
+        event.end();
+        if (event.shouldCommit()) {
+            event.pojo = pojo;
+            event.bytes = content.getBytes(StandardCharsets.UTF_8).length;
+            event.commit();
+        }
+    }
+
+    static Object beginWritten() {
+        WrittenEvent event = new WrittenEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitWritten(final Object begun, final String file, final long bytes, final boolean buffered) {
+        WrittenEvent event = (WrittenEvent) begun;
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = file;
+            event.bytes = bytes;
+            event.buffered = buffered;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.jfr;
+
+import java.nio.file.Path;
+
+/**
+ * entry point for the table2pojo flight recorder events. no jdk.jfr type is referenced here, the
+ * events are only created while a recording is running: started with --jfr, -XX:StartFlightRecording
+ * or later with jcmd JFR.start (a recorder listener follows the recording state). otherwise begin
+ * returns null and commit does nothing, so the tool also runs on runtimes without the jdk.jfr module.
+ */
+public final class Recorder {
+
+    private static volatile boolean enabled;
+
+    static {
+        try {
+            Events.listen();
+        } catch (LinkageError e) {
+            // no jdk.jfr module, events are never created
+        }
+    }
+
+    private Recorder() {
+    }
+
+    /**
+     * start a flight recording with the default settings, written to the file when the JVM exits
+     *
+     * @param file
+     * @throws Exception
+     */
+    public static void start(final Path file) throws Exception {
+        Events.startRecording(file);
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * called by the recorder listener whenever a recording starts or stops
+     *
+     * @param recording true if any recording is running
+     */
+    static void setEnabled(final boolean recording) {
+        enabled = recording;
+    }
+
+    /**
+     * @return event, null if not recording
+     */
+    public static Object beginTableEnumerated() {
+        return enabled ? Events.beginTableEnumerated() : null;
+    }
+
+    public static void commitTableEnumerated(final Object event, final String table) {
+        if (event != null) {
+            Events.commitTableEnumerated(event, table);
+        }
+    }
+
+    /**
+     * @return event, null if not recording
+     */
+    public static Object beginMetadataFetched() {
+        return enabled ? Events.beginMetadataFetched() : null;
+    }
+
+    public static void commitMetadataFetched(final Object event, final String table, final int columnCount) {
+        if (event != null) {
+            Events.commitMetadataFetched(event, table, columnCount);
+        }
+    }
+
+    /**
+     * @return event, null if not recording
+     */
+    public static Object beginRendered() {
+        return enabled ? Events.beginRendered() : null;
+    }
+
+    public static void commitRendered(final Object event, final String pojo, final String content) {
+        if (event != null) {
+            Events.commitRendered(event, pojo, content);
+        }
+    }
+
+    /**
+     * @return event, null if not recording
+     */
+    public static Object beginWritten() {
+        return enabled ? Events.beginWritten() : null;
+    }
+
+    /**
+     * @param event
+     * @param file
+     * @param bytes
+     * @param buffered true if the content was only appended to a buffer written later (archive)
+     */
+    public static void commitWritten(final Object event, final String file, final long bytes, final boolean buffered) {
+        if (event != null) {
+            Events.commitWritten(event, file, bytes, buffered);
+        }
+    }
+}
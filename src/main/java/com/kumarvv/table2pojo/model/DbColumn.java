@@ -20,27 +20,28 @@ package com.kumarvv.table2pojo.model;
  */
 import java.io.Serializable;
 
+/**
+ * column used for generation. metadata not needed for generation is kept in a separate
+ * details object, so columns of low memory runs (without details) stay small
+ */
 public class DbColumn implements Serializable {
-    private String catelogName;
     private String name;
-    private String label;
-    private int displaySize;
     private int type;
     private String typeName;
     private int precision;
     private int scale;
-    private String schemaName;
-    private String tableName;
-    private String className;
     private String javaType;
     private String javaProperty;
+    private boolean primaryKey;
+    private String refTable;
+    private ColumnDetails details;
 
     public String getCatelogName() {
-        return catelogName;
+        return details == null ? null : details.getCatelogName();
     }
 
     public void setCatelogName(String catelogName) {
-        this.catelogName = catelogName;
+        details().setCatelogName(catelogName);
     }
 
     public String getName() {
@@ -52,19 +53,19 @@ public class DbColumn implements Serializable {
     }
 
     public String getLabel() {
-        return label;
+        return details == null ? null : details.getLabel();
     }
 
     public void setLabel(String label) {
-        this.label = label;
+        details().setLabel(label);
     }
 
     public int getDisplaySize() {
-        return displaySize;
+        return details == null ? 0 : details.getDisplaySize();
     }
 
     public void setDisplaySize(int displaySize) {
-        this.displaySize = displaySize;
+        details().setDisplaySize(displaySize);
     }
 
     public int getType() {
@@ -100,27 +101,27 @@ public class DbColumn implements Serializable {
     }
 
     public String getSchemaName() {
-        return schemaName;
+        return details == null ? null : details.getSchemaName();
     }
 
     public void setSchemaName(String schemaName) {
-        this.schemaName = schemaName;
+        details().setSchemaName(schemaName);
     }
 
     public String getTableName() {
-        return tableName;
+        return details == null ? null : details.getTableName();
     }
 
     public void setTableName(String tableName) {
-        this.tableName = tableName;
+        details().setTableName(tableName);
     }
 
     public String getClassName() {
-        return className;
+        return details == null ? null : details.getClassName();
     }
 
     public void setClassName(String className) {
-        this.className = className;
+        details().setClassName(className);
     }
 
     public String getJavaType() {
@@ -138,4 +139,36 @@ public class DbColumn implements Serializable {
     public void setJavaProperty(String javaProperty) {
         this.javaProperty = javaProperty;
     }
+
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    public void setPrimaryKey(boolean primaryKey) {
+        this.primaryKey = primaryKey;
+    }
+
+    public String getRefTable() {
+        return refTable;
+    }
+
+    public void setRefTable(String refTable) {
+        this.refTable = refTable;
+    }
+
+    /**
+     * details of the column, null if no detail was set
+     *
+     * @return
+     */
+    public ColumnDetails getDetails() {
+        return details;
+    }
+
+    private ColumnDetails details() {
+        if (details == null) {
+            details = new ColumnDetails();
+        }
+        return details;
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GenerateResult {
+
+    /**
+     * phases of a run, times of the per table phases are summed over all writer threads
+     */
+    public enum Phase {
+        ENUMERATE, KEYS, METADATA, RENDER, WRITE
+    }
+
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private final AtomicInteger tableCount = new AtomicInteger();
+    private final AtomicInteger fileCount = new AtomicInteger();
+    private final Set<String> tables = new ConcurrentSkipListSet<>();
+    private final Set<String> files = new ConcurrentSkipListSet<>();
+    private final Map<String, String> errors = new ConcurrentSkipListMap<>();
+    private final Set<String> added = new ConcurrentSkipListSet<>();
+    private final Set<String> changed = new ConcurrentSkipListSet<>();
+    private final Set<String> removed = new ConcurrentSkipListSet<>();
+    private long elapsedMillis;
+    private long peakHeapBytes;
+    private boolean detailed = true;
+
+    public GenerateResult() {
+        for (Phase phase : Phase.values()) {
+            phaseNanos.put(phase, new LongAdder());
+        }
+    }
+
+    public Set<String> getTables() {
+        return tables;
+    }
+    public void addTable(String table) {
+        tableCount.incrementAndGet();
+        if (detailed) {
+            tables.add(table);
+        }
+    }
+    public int getTableCount() {
+        return tableCount.get();
+    }
+
+    public Set<String> getFiles() {
+        return files;
+    }
+    public void addFile(String file) {
+        fileCount.incrementAndGet();
+        if (detailed) {
+            files.add(file);
+        }
+    }
+    public int getFileCount() {
+        return fileCount.get();
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+    public void addError(String source, String message) {
+        errors.put(source, String.valueOf(message));
+    }
+
+    public Set<String> getAdded() {
+        return added;
+    }
+    public void addAdded(String file) {
+        added.add(file);
+    }
+
+    public Set<String> getChanged() {
+        return changed;
+    }
+    public void addChanged(String file) {
+        changed.add(file);
+    }
+
+    public Set<String> getRemoved() {
+        return removed;
+    }
+    public void addRemoved(String file) {
+        removed.add(file);
+    }
+
+    /**
+     * in check mode, true if the generated sources match the existing files
+     */
+    public boolean isUpToDate() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+    public void setPeakHeapBytes(long peakHeapBytes) {
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    /**
+     * when false only counts of tables and files are kept, not their names
+     */
+    public boolean isDetailed() {
+        return detailed;
+    }
+    public void setDetailed(boolean detailed) {
+        this.detailed = detailed;
+    }
+
+    public void addPhaseNanos(Phase phase, long nanos) {
+        phaseNanos.get(phase).add(nanos);
+    }
+    public long getPhaseMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(phase).sum());
+    }
+
+    public boolean isSuccess() {
+        return errors.isEmpty();
+    }
+}
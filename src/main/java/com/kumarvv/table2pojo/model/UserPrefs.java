@@ -26,6 +26,19 @@ public class UserPrefs {
     private String pkg;
     private String dir;
     private int numThreads = 2;
+    private boolean registry;
+    private boolean dedup;
+    private boolean keys;
+    private String idAnnotation = "javax";
+    private long watchMillis;
+    private boolean lowMemory;
+    private boolean check;
+    private String profiles;
+    private String archive;
+    private int compression = -1;
+    private String typeRules;
+    private int connections;
+    private String jfr;
 
     public boolean isAllTables() {
         return allTables;
@@ -61,4 +74,135 @@ public class UserPrefs {
     public void setNumThreads(int numThreads) {
         this.numThreads = numThreads;
     }
+
+    public boolean isRegistry() {
+        return registry;
+    }
+    public void setRegistry(boolean registry) {
+        this.registry = registry;
+    }
+
+    public boolean isDedup() {
+        return dedup;
+    }
+    public void setDedup(boolean dedup) {
+        this.dedup = dedup;
+    }
+
+    public boolean isKeys() {
+        return keys;
+    }
+    public void setKeys(boolean keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * annotation of primary key fields: javax, jakarta or none
+     * @return
+     */
+    public String getIdAnnotation() {
+        return idAnnotation;
+    }
+    public void setIdAnnotation(String idAnnotation) {
+        this.idAnnotation = idAnnotation;
+    }
+
+    public long getWatchMillis() {
+        return watchMillis;
+    }
+    public void setWatchMillis(long watchMillis) {
+        this.watchMillis = watchMillis;
+    }
+
+    public boolean isLowMemory() {
+        return lowMemory;
+    }
+    public void setLowMemory(boolean lowMemory) {
+        this.lowMemory = lowMemory;
+    }
+
+    public boolean isCheck() {
+        return check;
+    }
+    public void setCheck(boolean check) {
+        this.check = check;
+    }
+
+    public String getProfiles() {
+        return profiles;
+    }
+    public void setProfiles(String profiles) {
+        this.profiles = profiles;
+    }
+
+    public String getArchive() {
+        return archive;
+    }
+    public void setArchive(String archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * zip compression level 0-9, -1 for the default level
+     * @return
+     */
+    public int getCompression() {
+        return compression;
+    }
+    public void setCompression(int compression) {
+        this.compression = compression;
+    }
+
+    public String getTypeRules() {
+        return typeRules;
+    }
+    public void setTypeRules(String typeRules) {
+        this.typeRules = typeRules;
+    }
+
+    /**
+     * connections of the table scheduler, 0 for the writer threads
+     * @return
+     */
+    public int getConnections() {
+        return connections;
+    }
+    public void setConnections(int connections) {
+        this.connections = connections;
+    }
+
+    public String getJfr() {
+        return jfr;
+    }
+    public void setJfr(String jfr) {
+        this.jfr = jfr;
+    }
+
+    /**
+     * copy of the preferences for a subset of tables
+     * @param tables
+     * @return
+     */
+    public UserPrefs copy(String[] tables) {
+        UserPrefs copy = new UserPrefs();
+        copy.setAllTables(tables == null && allTables);
+        copy.setTables(tables == null ? this.tables : tables);
+        copy.setPkg(pkg);
+        copy.setDir(dir);
+        copy.setNumThreads(numThreads);
+        copy.setRegistry(registry);
+        copy.setDedup(dedup);
+        copy.setKeys(keys);
+        copy.setIdAnnotation(idAnnotation);
+        copy.setWatchMillis(watchMillis);
+        copy.setLowMemory(lowMemory);
+        copy.setCheck(check);
+        copy.setProfiles(profiles);
+        copy.setArchive(archive);
+        copy.setCompression(compression);
+        copy.setTypeRules(typeRules);
+        copy.setConnections(connections);
+        copy.setJfr(jfr);
+        return copy;
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * archive output is byte-identical for identical sources
+ */
+public class ArchiveSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void identicalSourcesGiveIdenticalArchives() throws Exception {
+        Path first = dir.resolve("first/pojos-sources.jar");
+        Path second = dir.resolve("second/pojos-sources.jar");
+        write(prefs(first, true), "Orders.java", "class Orders {}", "Customer.java", "class Customer {}", "Item.java", "class Item {}");
+        write(prefs(second, true), "Item.java", "class Item {}", "Orders.java", "class Orders {}", "Customer.java", "class Customer {}");
+
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+    }
+
+    @Test
+    public void timeZoneDoesNotChangeArchive() throws Exception {
+        Path first = dir.resolve("first/pojos.zip");
+        Path second = dir.resolve("second/pojos.zip");
+        TimeZone timeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            write(prefs(first, true), "Orders.java", "class Orders {}");
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+            write(prefs(second, true), "Orders.java", "class Orders {}");
+        } finally {
+            TimeZone.setDefault(timeZone);
+        }
+
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+    }
+
+    @Test
+    public void storedArchivesAreIdentical() throws Exception {
+        Path first = dir.resolve("first/pojos.zip");
+        Path second = dir.resolve("second/pojos.zip");
+        UserPrefs prefs = prefs(first, true);
+        prefs.setCompression(0);
+        write(prefs, "Orders.java", "class Orders {}", "Customer.java", "class Customer {}");
+        prefs = prefs(second, true);
+        prefs.setCompression(0);
+        write(prefs, "Customer.java", "class Customer {}", "Orders.java", "class Orders {}");
+
+        assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+    }
+
+    @Test
+    public void entriesAreSortedWithFixedTime() throws Exception {
+        Path archive = dir.resolve("pojos-sources.jar");
+        write(prefs(archive, true), "Orders.java", "class Orders {}", "Customer.java", "class Customer {}");
+
+        List<String> names = new ArrayList<>();
+        Set<Long> times = new HashSet<>();
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            zip.stream().forEach(entry -> {
+                names.add(entry.getName());
+                times.add(entry.getTime());
+            });
+        }
+        assertEquals("[META-INF/MANIFEST.MF, com/, com/acme/, com/acme/pojo/, com/acme/pojo/Customer.java, com/acme/pojo/Orders.java]",
+                names.toString());
+        assertEquals(1, times.size());
+        assertFalse(Files.exists(dir.resolve("pojos-sources.jar.tmp")));
+    }
+
+    @Test
+    public void tablesRunKeepsOtherEntries() throws Exception {
+        Path archive = dir.resolve("pojos.zip");
+        write(prefs(archive, true), "Orders.java", "class Orders {}", "Customer.java", "class Customer {}");
+
+        ArchiveSink sink = new ArchiveSink(prefs(archive, false));
+        assertEquals("class Orders {}", sink.read("Orders.java"));
+        assertNull(sink.read("Item.java"));
+        sink.write("Orders.java", "class Orders { int id; }");
+        sink.close();
+
+        sink = new ArchiveSink(prefs(archive, false));
+        assertEquals("class Orders { int id; }", sink.read("Orders.java"));
+        assertEquals("class Customer {}", sink.read("Customer.java"));
+    }
+
+    @Test
+    public void allTablesRunDropsOtherEntries() throws Exception {
+        Path archive = dir.resolve("pojos.zip");
+        write(prefs(archive, true), "Orders.java", "class Orders {}", "Customer.java", "class Customer {}");
+        write(prefs(archive, true), "Orders.java", "class Orders {}");
+
+        assertNull(new ArchiveSink(prefs(archive, true)).read("Customer.java"));
+    }
+
+    private void write(final UserPrefs prefs, final String... files) throws PojoWriterException {
+        ArchiveSink sink = new ArchiveSink(prefs);
+        for (int i = 0; i < files.length; i += 2) {
+            sink.write(files[i], files[i + 1]);
+        }
+        sink.close();
+    }
+
+    private UserPrefs prefs(final Path archive, final boolean allTables) {
+        UserPrefs prefs = new UserPrefs();
+        prefs.setAllTables(allTables);
+        prefs.setPkg("com.acme.pojo");
+        prefs.setArchive(archive.toString());
+        return prefs;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * check mode reporting of added, changed and removed sources
+ */
+public class CheckSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void reportsAddedChangedAndRemoved() throws Exception {
+        existing("Same.java", "class Same {}");
+        existing("Changed.java", "class Changed {}");
+        existing("Dropped.java", "class Dropped {}");
+        existing("TableRegistry.idx", "DROPPED\tDropped\n");
+
+        GenerateResult result = new GenerateResult();
+        CheckSink sink = new CheckSink(prefs(true), result);
+        sink.write("Same.java", "class Same {}");
+        sink.write("Changed.java", "class Changed { int id; }");
+        sink.write("Added.java", "class Added {}");
+        sink.close();
+
+        assertEquals("[Added.java]", result.getAdded().toString());
+        assertEquals("[Changed.java]", result.getChanged().toString());
+        assertEquals("[Dropped.java]", result.getRemoved().toString());
+        assertFalse(result.isUpToDate());
+    }
+
+    @Test
+    public void identicalSourcesAreUpToDate() throws Exception {
+        existing("Same.java", "class Same {}");
+
+        GenerateResult result = new GenerateResult();
+        CheckSink sink = new CheckSink(prefs(true), result);
+        sink.write("Same.java", "class Same {}");
+        sink.close();
+
+        assertTrue(result.isUpToDate());
+    }
+
+    @Test
+    public void doesNotWriteFiles() throws Exception {
+        existing("Changed.java", "class Changed {}");
+
+        CheckSink sink = new CheckSink(prefs(true), new GenerateResult());
+        sink.write("Changed.java", "class Changed { int id; }");
+        sink.write("Added.java", "class Added {}");
+        sink.close();
+
+        assertEquals("class Changed {}", new String(Files.readAllBytes(pkgDir().resolve("Changed.java")), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(pkgDir().resolve("Added.java")));
+    }
+
+    @Test
+    public void tablesRunDoesNotReportRemoved() throws Exception {
+        existing("Other.java", "class Other {}");
+
+        GenerateResult result = new GenerateResult();
+        CheckSink sink = new CheckSink(prefs(false, "ORDERS"), result);
+        sink.write("Orders.java", "class Orders {}");
+        sink.close();
+
+        assertEquals("[Orders.java]", result.getAdded().toString());
+        assertTrue(result.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void missingDirectoryReportsAdded() throws Exception {
+        GenerateResult result = new GenerateResult();
+        CheckSink sink = new CheckSink(prefs(true), result);
+        sink.write("Orders.java", "class Orders {}");
+        sink.close();
+
+        assertEquals("[Orders.java]", result.getAdded().toString());
+        assertTrue(result.getRemoved().isEmpty());
+        assertFalse(Files.exists(pkgDir()));
+    }
+
+    private UserPrefs prefs(final boolean allTables, final String... tables) {
+        UserPrefs prefs = new UserPrefs();
+        prefs.setAllTables(allTables);
+        prefs.setTables(tables);
+        prefs.setPkg("com.acme.pojo");
+        prefs.setDir(dir.toString());
+        return prefs;
+    }
+
+    private Path pkgDir() {
+        return dir.resolve("com/acme/pojo");
+    }
+
+    private void existing(final String fileName, final String content) throws Exception {
+        Files.createDirectories(pkgDir());
+        Files.write(pkgDir().resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.DbColumn;
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * grouping of identical and prefix-identical tables
+ */
+public class PojoDeduplicatorTest {
+
+    private final UserPrefs prefs = new UserPrefs();
+    private final MemorySink sink = new MemorySink(prefs);
+    private final RunContext context = new RunContext(null);
+    private final PojoDeduplicator dedup;
+
+    public PojoDeduplicatorTest() {
+        prefs.setAllTables(true);
+        prefs.setPkg("com.acme.pojo");
+        context.setSink(sink);
+        dedup = new PojoDeduplicator(prefs, context);
+    }
+
+    @Test
+    public void identicalTablesShareBase() {
+        dedup.add("SALES_2023_01", columns("ID:Long", "AMOUNT:BigDecimal"));
+        dedup.add("SALES_2023_02", columns("ID:Long", "AMOUNT:BigDecimal"));
+        dedup.generate(context.getResult());
+
+        assertEquals("[Sales202301.java, Sales202302.java, SalesBase.java]", sink.files.keySet().toString());
+        assertTrue(sink.get("SalesBase").contains("public abstract class SalesBase implements Serializable {"));
+        assertTrue(sink.get("SalesBase").contains("private Long id;"));
+        assertTrue(sink.get("Sales202301").contains("public class Sales202301 extends SalesBase {"));
+        assertFalse(sink.get("Sales202301").contains("private"));
+        assertTrue(context.getResult().getErrors().isEmpty());
+    }
+
+    @Test
+    public void prefixTableExtendsBase() {
+        dedup.add("ORDERS", columns("ID:Long", "TOTAL:Long"));
+        dedup.add("ORDERS_ARCHIVE", columns("ID:Long", "TOTAL:Long", "ARCHIVED_AT:Timestamp"));
+        dedup.generate(context.getResult());
+
+        assertEquals("[Orders.java, OrdersArchive.java, OrdersBase.java]", sink.files.keySet().toString());
+        assertTrue(sink.get("OrdersBase").contains("private Long total;"));
+        assertTrue(sink.get("Orders").contains("public class Orders extends OrdersBase {"));
+        assertTrue(sink.get("OrdersArchive").contains("public class OrdersArchive extends OrdersBase {"));
+        assertTrue(sink.get("OrdersArchive").contains("private Timestamp archivedAt;"));
+        assertFalse(sink.get("OrdersArchive").contains("private Long total;"));
+    }
+
+    @Test
+    public void shortPrefixIsNotShared() {
+        // ID covers only a quarter of AUDIT_LOG
+        dedup.add("AUDIT", columns("ID:Long"));
+        dedup.add("AUDIT_LOG", columns("ID:Long", "ACTION:String", "USER_NAME:String", "LOGGED_AT:Timestamp"));
+        dedup.generate(context.getResult());
+
+        assertEquals("[Audit.java, AuditLog.java]", sink.files.keySet().toString());
+        assertTrue(sink.get("AuditLog").contains("public class AuditLog implements Serializable {"));
+    }
+
+    @Test
+    public void differentTypesAreNotShared() {
+        dedup.add("RATE_EUR", columns("ID:Long", "RATE:BigDecimal"));
+        dedup.add("RATE_USD", columns("ID:Long", "RATE:Double"));
+        dedup.generate(context.getResult());
+
+        assertEquals("[RateEur.java, RateUsd.java]", sink.files.keySet().toString());
+    }
+
+    @Test
+    public void longestSharedPrefixWins() {
+        dedup.add("ITEM_A", columns("ID:Long", "NAME:String", "PRICE:Long"));
+        dedup.add("ITEM_B", columns("ID:Long", "NAME:String", "PRICE:Long"));
+        dedup.add("ITEM_C", columns("ID:Long", "NAME:String", "PRICE:Long", "STOCK:Long"));
+        dedup.add("LABEL_A", columns("ID:Long", "NAME:String"));
+        dedup.add("LABEL_B", columns("ID:Long", "NAME:String"));
+        dedup.generate(context.getResult());
+
+        assertTrue(sink.get("ItemC").contains("public class ItemC extends ItemBase {"));
+        assertTrue(sink.get("ItemBase").contains("private Long price;"));
+        assertTrue(sink.get("LabelA").contains("public class LabelA extends LabelBase {"));
+        assertFalse(sink.get("LabelBase").contains("price"));
+    }
+
+    @Test
+    public void baseNameAvoidsPojoNames() {
+        dedup.add("SALES_1", columns("ID:Long", "AMOUNT:Long"));
+        dedup.add("SALES_2", columns("ID:Long", "AMOUNT:Long"));
+        dedup.add("SALES_BASE", columns("CODE:String"));
+        dedup.generate(context.getResult());
+
+        assertTrue(sink.get("SalesBase").contains("public class SalesBase implements Serializable {"));
+        assertTrue(sink.get("Sales1").contains("public class Sales1 extends SalesBase2 {"));
+        assertTrue(sink.get("SalesBase2").contains("public abstract class SalesBase2"));
+    }
+
+    private List<DbColumn> columns(final String... nameTypes) {
+        PojoGenerator generator = new PojoGenerator(prefs, context);
+        List<DbColumn> columns = new ArrayList<>();
+        for (String nameType : nameTypes) {
+            String[] parts = nameType.split(":");
+            DbColumn column = new DbColumn();
+            column.setName(parts[0]);
+            column.setJavaType(parts[1]);
+            column.setJavaProperty(generator.toCamelCase(parts[0]));
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * keeps generated sources by file name
+     */
+    private static class MemorySink extends PojoSink {
+        private final Map<String, String> files = new TreeMap<>();
+
+        MemorySink(final UserPrefs prefs) {
+            super(prefs);
+        }
+
+        @Override
+        public synchronized String write(final String fileName, final String content) {
+            files.put(fileName, content);
+            return fileName;
+        }
+
+        String get(final String pojoName) {
+            String content = files.get(pojoName + ".java");
+            assertNotNull(content, pojoName + ".java not generated");
+            return content;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.DbColumn;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * registry index merge across runs
+ */
+public class RegistryWriterTest {
+
+    private final PojoGenerator generator = new PojoGenerator(new UserPrefs(), new RunContext(null));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void tablesRunMergesExistingIndex() throws Exception {
+        run(prefs(true), "ORDERS", "CUSTOMER");
+        run(prefs(false, "ITEM"), "ITEM");
+
+        assertEquals("CUSTOMER\tCustomer\tCUSTOMER_ID\tcustomerId\tNAME\tname\n"
+                + "ITEM\tItem\tITEM_ID\titemId\tNAME\tname\n"
+                + "ORDERS\tOrders\tORDERS_ID\tordersId\tNAME\tname\n", index());
+
+        String registry = new String(Files.readAllBytes(pkgDir().resolve("TableRegistry.java")), StandardCharsets.UTF_8);
+        assertTrue(registry.contains("Customer.class"));
+        assertTrue(registry.contains("Item.class"));
+        assertTrue(registry.contains("Orders.class"));
+    }
+
+    @Test
+    public void tablesRunReplacesChangedTable() throws Exception {
+        run(prefs(true), "ORDERS", "CUSTOMER");
+
+        UserPrefs prefs = prefs(false, "ORDERS");
+        RegistryWriter registry = new RegistryWriter(prefs, new FileSink(prefs));
+        registry.add("ORDERS", "Orders", columns("ORDERS_ID", "TOTAL"));
+        registry.write();
+
+        assertEquals("CUSTOMER\tCustomer\tCUSTOMER_ID\tcustomerId\tNAME\tname\n"
+                + "ORDERS\tOrders\tORDERS_ID\tordersId\tTOTAL\ttotal\n", index());
+    }
+
+    @Test
+    public void allTablesRunDropsExistingIndex() throws Exception {
+        run(prefs(true), "ORDERS", "CUSTOMER");
+        run(prefs(true), "ITEM");
+
+        assertEquals("ITEM\tItem\tITEM_ID\titemId\tNAME\tname\n", index());
+    }
+
+    @Test
+    public void readIndexSkipsInvalidLines() {
+        UserPrefs prefs = prefs(true);
+        RegistryWriter registry = new RegistryWriter(prefs, new FileSink(prefs));
+
+        String content = "ORDERS\tOrders\tORDERS_ID\tordersId\n"
+                + "BROKEN\tBroken\tCOLUMN\n"
+                + "\n";
+        assertEquals("ORDERS\tOrders\tORDERS_ID\tordersId\n", registry.generateIndex(registry.readIndex(content)));
+        assertTrue(registry.readIndex(null).isEmpty());
+    }
+
+    private void run(final UserPrefs prefs, final String... tables) throws PojoWriterException {
+        RegistryWriter registry = new RegistryWriter(prefs, new FileSink(prefs));
+        for (String table : tables) {
+            registry.add(table, generator.toMethodName(table), columns(table + "_ID", "NAME"));
+        }
+        registry.write();
+    }
+
+    private UserPrefs prefs(final boolean allTables, final String... tables) {
+        UserPrefs prefs = new UserPrefs();
+        prefs.setAllTables(allTables);
+        prefs.setTables(tables);
+        prefs.setPkg("com.acme.pojo");
+        prefs.setDir(dir.toString());
+        return prefs;
+    }
+
+    private List<DbColumn> columns(final String... names) {
+        List<DbColumn> columns = new ArrayList<>();
+        for (String name : names) {
+            DbColumn column = new DbColumn();
+            column.setName(name);
+            column.setJavaType("String");
+            column.setJavaProperty(generator.toCamelCase(name));
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    private Path pkgDir() {
+        return dir.resolve("com/acme/pojo");
+    }
+
+    private String index() throws Exception {
+        return new String(Files.readAllBytes(pkgDir().resolve("TableRegistry.idx")), StandardCharsets.UTF_8);
+    }
+}
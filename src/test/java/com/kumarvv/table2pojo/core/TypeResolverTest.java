@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.core;
+
+import com.kumarvv.table2pojo.model.DbColumn;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * type rule matching and rule file parsing
+ */
+public class TypeResolverTest {
+
+    @Test
+    public void defaultRules() {
+        TypeResolver types = TypeResolver.defaults();
+
+        assertEquals("Boolean", types.resolve(column("FLAG", Types.NUMERIC, "NUMBER", 1, 0)));
+        assertEquals("Long", types.resolve(column("ID", Types.NUMERIC, "NUMBER", 18, 0)));
+        assertEquals("BigDecimal", types.resolve(column("AMOUNT", Types.NUMERIC, "NUMBER", 10, 2)));
+        assertEquals("String", types.resolve(column("NAME", Types.VARCHAR, "VARCHAR2", 50, 0)));
+        assertEquals("Date", types.resolve(column("CREATED", Types.DATE, "DATE", 0, 0)));
+        assertEquals("byte[]", types.resolve(column("DATA", Types.VARBINARY, "RAW", 16, 0)));
+
+        assertEquals("java.math.BigDecimal", types.getImport("BigDecimal"));
+        assertEquals("java.util.Date", types.getImport("Date"));
+        assertNull(types.getImport("Long"));
+    }
+
+    @Test
+    public void unmatchedColumnIsNull() {
+        TypeResolver types = TypeResolver.defaults();
+
+        assertNull(types.resolve(column("GEOM", Types.OTHER, "SDO_GEOMETRY", 0, 0)));
+        assertNull(types.resolve(column("TS", -101, "TIMESTAMP WITH TIME ZONE", 0, 0)));
+        assertNull(types.resolve(null));
+    }
+
+    @Test
+    public void firstMatchingRuleWins() throws Exception {
+        TypeResolver types = TypeResolver.compile(Arrays.asList(
+                "type=NUMERIC; precision=2..9; scale=0 => Integer",
+                "type=NUMERIC; precision=..4 => Short",
+                "type=NUMERIC; precision=19.. ; scale=0 => java.math.BigInteger"));
+
+        // rules of the file are tried before the default rules
+        assertEquals("Short", types.resolve(column("FLAG", Types.NUMERIC, "NUMBER", 1, 0)));
+        assertEquals("Integer", types.resolve(column("QTY", Types.NUMERIC, "NUMBER", 4, 0)));
+        assertEquals("Short", types.resolve(column("RATE", Types.NUMERIC, "NUMBER", 4, 2)));
+        assertEquals("Long", types.resolve(column("ID", Types.NUMERIC, "NUMBER", 18, 0)));
+        assertEquals("BigInteger", types.resolve(column("BIG", Types.NUMERIC, "NUMBER", 38, 0)));
+        assertEquals("java.math.BigInteger", types.getImport("BigInteger"));
+    }
+
+    @Test
+    public void typeNameAndColumnPatterns() throws Exception {
+        TypeResolver types = TypeResolver.compile(Arrays.asList(
+                "# comment",
+                "",
+                "typeName=timestamp with*time zone => java.time.OffsetDateTime",
+                "column=*_DT; type=DATE => java.time.LocalDate",
+                "column=IS_?? => Boolean",
+                "type=-101 => String"));
+
+        assertEquals("OffsetDateTime", types.resolve(column("TS", -101, "TIMESTAMP WITH LOCAL TIME ZONE", 0, 0)));
+        assertEquals("String", types.resolve(column("TS", -101, "TIMESTAMPTZ", 0, 0)));
+        assertEquals("LocalDate", types.resolve(column("order_dt", Types.DATE, "DATE", 0, 0)));
+        assertEquals("Date", types.resolve(column("ORDER_DT_X", Types.DATE, "DATE", 0, 0)));
+        assertEquals("Boolean", types.resolve(column("IS_OK", Types.CHAR, "CHAR", 1, 0)));
+        assertEquals("Boolean", types.resolve(column("IS_OK", Types.OTHER, "BOOL", 1, 0)));
+        assertEquals("String", types.resolve(column("IS_OKAY", Types.CHAR, "CHAR", 1, 0)));
+    }
+
+    @Test
+    public void sameSimpleNameIsQualified() throws Exception {
+        TypeResolver types = TypeResolver.compile(Collections.singletonList("column=SQL_* ; type=DATE => java.sql.Date"));
+
+        assertEquals("Date", types.resolve(column("SQL_DAY", Types.DATE, "DATE", 0, 0)));
+        assertEquals("java.sql.Date", types.getImport("Date"));
+        assertEquals("java.util.Date", types.resolve(column("DAY", Types.DATE, "DATE", 0, 0)));
+    }
+
+    @Test
+    public void matchesPatterns() {
+        assertTrue(TypeResolver.matches("*_ID".toCharArray(), "customer_id"));
+        assertTrue(TypeResolver.matches("A*B*C".toCharArray(), "AXXBYYBC"));
+        assertTrue(TypeResolver.matches("?".toCharArray(), "x"));
+        assertTrue(TypeResolver.matches("*".toCharArray(), ""));
+        assertFalse(TypeResolver.matches("*_ID".toCharArray(), "CUSTOMER_IDS"));
+        assertFalse(TypeResolver.matches("??".toCharArray(), "X"));
+        assertFalse(TypeResolver.matches("X".toCharArray(), null));
+    }
+
+    @Test
+    public void emptyRangeIsRejected() {
+        PojoWriterException e = assertThrows(PojoWriterException.class,
+                () -> TypeResolver.compile(Arrays.asList("# comment", "type=NUMERIC; precision=10..2 => Long")));
+        assertEquals("type rules line 2: empty precision range 10..2", e.getMessage());
+
+        e = assertThrows(PojoWriterException.class, () -> TypeResolver.compile(Collections.singletonList("scale=3..-1 => Long")));
+        assertEquals("type rules line 1: empty scale range 3..-1", e.getMessage());
+    }
+
+    @Test
+    public void singleValueAndOpenRangesAreAccepted() throws Exception {
+        TypeResolver.compile(Arrays.asList("precision=5 => Long", "precision=5..5 => Long", "scale=..0 => Long", "scale=0.. => Long"));
+    }
+
+    @Test
+    public void invalidRulesAreRejected() {
+        assertEquals("type rules line 1: missing => java type",
+                assertThrows(PojoWriterException.class, () -> TypeResolver.compile(Collections.singletonList("type=DATE"))).getMessage());
+        assertEquals("type rules line 1: missing java type",
+                assertThrows(PojoWriterException.class, () -> TypeResolver.compile(Collections.singletonList("type=DATE =>"))).getMessage());
+        assertEquals("type rules line 1: unknown type DATUM",
+                assertThrows(PojoWriterException.class, () -> TypeResolver.compile(Collections.singletonList("type=DATUM => Long"))).getMessage());
+        assertEquals("type rules line 1: unknown condition size",
+                assertThrows(PojoWriterException.class, () -> TypeResolver.compile(Collections.singletonList("size=4 => Long"))).getMessage());
+        assertEquals("type rules line 1: invalid condition \"DATE\"",
+                assertThrows(PojoWriterException.class, () -> TypeResolver.compile(Collections.singletonList("DATE => Long"))).getMessage());
+    }
+
+    private DbColumn column(final String name, final int type, final String typeName, final int precision, final int scale) {
+        DbColumn column = new DbColumn();
+        column.setName(name);
+        column.setType(type);
+        column.setTypeName(typeName);
+        column.setPrecision(precision);
+        column.setScale(scale);
+        return column;
+    }
+}
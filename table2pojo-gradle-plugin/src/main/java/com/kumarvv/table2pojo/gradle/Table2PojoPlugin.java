@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
+
+/**
+ * registers the generatePojos task and adds its output to the main source set when the java plugin is applied.
+ * JDBC drivers are added to the table2pojoDriver configuration.
+ */
+public class Table2PojoPlugin implements Plugin<Project> {
+
+    public static final String TASK_NAME = "generatePojos";
+    public static final String DRIVER_CONFIGURATION = "table2pojoDriver";
+
+    @Override
+    public void apply(final Project project) {
+        Configuration drivers = project.getConfigurations().create(DRIVER_CONFIGURATION, c -> {
+            c.setCanBeConsumed(false);
+            c.setDescription("JDBC drivers used by the " + TASK_NAME + " task");
+        });
+
+        TaskProvider<Table2PojoTask> task = project.getTasks().register(TASK_NAME, Table2PojoTask.class, t -> {
+            t.setGroup("build");
+            t.setDescription("Generates POJO classes from database tables");
+            t.getDriverClasspath().from(drivers);
+            t.getOutputDir().convention(project.getLayout().getBuildDirectory().dir("generated/sources/table2pojo"));
+            t.getAllTables().convention(false);
+            t.getNumThreads().convention(2);
+            t.getRegistry().convention(false);
+            t.getDedup().convention(false);
+            t.getKeys().convention(false);
+            t.getIdAnnotation().convention("javax");
+        });
+
+        project.getPlugins().withType(JavaPlugin.class, java -> {
+            SourceSetContainer sourceSets = project.getExtensions().getByType(SourceSetContainer.class);
+            sourceSets.getByName("main").getJava().srcDir(task.flatMap(Table2PojoTask::getOutputDir));
+        });
+    }
+}
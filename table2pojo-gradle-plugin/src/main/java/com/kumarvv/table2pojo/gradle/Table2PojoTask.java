@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2017 Vijay Vijayaram
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.kumarvv.table2pojo.gradle;
+
+import com.kumarvv.table2pojo.Table2Pojo;
+import com.kumarvv.table2pojo.core.DdlWatcher;
+import com.kumarvv.table2pojo.core.KeyReader;
+import com.kumarvv.table2pojo.core.Log;
+import com.kumarvv.table2pojo.core.PojoWriterException;
+import com.kumarvv.table2pojo.core.PrefsValidator;
+import com.kumarvv.table2pojo.model.GenerateResult;
+import com.kumarvv.table2pojo.model.UserPrefs;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * generates pojos in-process through the table2pojo API.
+ *
+ * besides the options, the schema fingerprint of the selected tables (and their keys with keys
+ * enabled) is an input, so the task is up-to-date (or loaded from the build cache) as long as the
+ * table definitions do not change. the password and the thread count are internal, they do not change
+ * the generated output. the options are validated like the command line options before connecting.
+ *
+ * the driver class loader is closed after each use and the log thread is stopped, the task runs
+ * in the long-lived Gradle daemon.
+ */
+@CacheableTask
+public abstract class Table2PojoTask extends DefaultTask {
+
+    private String fingerprint;
+
+    @Input
+    public abstract Property<String> getDriver();
+
+    @Input
+    public abstract Property<String> getUrl();
+
+    @Input
+    @Optional
+    public abstract Property<String> getUsername();
+
+    @Internal
+    public abstract Property<String> getPassword();
+
+    @Input
+    public abstract Property<Boolean> getAllTables();
+
+    @Input
+    public abstract ListProperty<String> getTables();
+
+    @Input
+    @Optional
+    public abstract Property<String> getPkg();
+
+    @Internal
+    public abstract Property<Integer> getNumThreads();
+
+    @Input
+    public abstract Property<Boolean> getRegistry();
+
+    @Input
+    public abstract Property<Boolean> getDedup();
+
+    @Input
+    public abstract Property<Boolean> getKeys();
+
+    @Input
+    public abstract Property<String> getIdAnnotation();
+
+    @Classpath
+    public abstract ConfigurableFileCollection getDriverClasspath();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDir();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    /**
+     * fingerprint of the table definitions, one cheap catalog query (and one for the keys)
+     * @return
+     */
+    @Input
+    public synchronized String getSchemaFingerprint() {
+        if (fingerprint == null) {
+            UserPrefs prefs = buildPrefs();
+            try (URLClassLoader loader = driverLoader(); Connection conn = connect(loader)) {
+                KeyReader keys = null;
+                if (prefs.isKeys()) {
+                    keys = new KeyReader(prefs);
+                    keys.load(conn);
+                }
+                fingerprint = new DdlWatcher(prefs, conn).fingerprint(keys);
+            } catch (SQLException | IOException e) {
+                throw new GradleException("could not read schema fingerprint: " + e.getMessage(), e);
+            } finally {
+                Log.shutdown();
+            }
+        }
+        return fingerprint;
+    }
+
+    @TaskAction
+    public void generate() {
+        File outputDir = getOutputDir().get().getAsFile();
+        getFileSystemOperations().delete(spec -> spec.delete(outputDir));
+
+        GenerateResult result;
+        try (URLClassLoader loader = driverLoader(); Connection conn = connect(loader)) {
+            result = Table2Pojo.generate(conn, buildPrefs());
+        } catch (SQLException | IOException e) {
+            throw new GradleException("could not connect to database: " + e.getMessage(), e);
+        } finally {
+            Log.shutdown();
+        }
+
+        getLogger().lifecycle("table2pojo: generated {} tables into {} (elapsed: {}ms)",
+                result.getTableCount(), outputDir, result.getElapsedMillis());
+        if (!result.isSuccess()) {
+            throw new GradleException("table2pojo failed for " + result.getErrors().size() + " tables: " + result.getErrors());
+        }
+    }
+
+    /**
+     * user preferences from the task properties, validated like the command line options
+     * @return
+     */
+    protected UserPrefs buildPrefs() {
+        UserPrefs prefs = new UserPrefs();
+        prefs.setAllTables(getAllTables().get() || getTables().get().isEmpty());
+        prefs.setTables(getTables().get().toArray(new String[0]));
+        prefs.setPkg(getPkg().getOrNull());
+        prefs.setDir(getOutputDir().get().getAsFile().getAbsolutePath());
+        prefs.setNumThreads(getNumThreads().get());
+        prefs.setRegistry(getRegistry().get());
+        prefs.setDedup(getDedup().get());
+        prefs.setKeys(getKeys().get());
+        prefs.setIdAnnotation(getIdAnnotation().get());
+        try {
+            PrefsValidator.validate(prefs);
+        } catch (PojoWriterException e) {
+            throw new GradleException("invalid table2pojo configuration: " + e.getMessage(), e);
+        }
+        return prefs;
+    }
+
+    /**
+     * class loader of the driver classpath, to be closed after the connection
+     * @return
+     * @throws IOException
+     */
+    protected URLClassLoader driverLoader() throws IOException {
+        URL[] urls = new URL[getDriverClasspath().getFiles().size()];
+        int i = 0;
+        for (File file : getDriverClasspath().getFiles()) {
+            urls[i++] = file.toURI().toURL();
+        }
+        return new URLClassLoader(urls, getClass().getClassLoader());
+    }
+
+    /**
+     * connect through the driver from the driver class loader, without registering it in DriverManager
+     * @param loader
+     * @return
+     * @throws SQLException
+     */
+    protected Connection connect(final ClassLoader loader) throws SQLException {
+        try {
+            Driver driver = (Driver) Class.forName(getDriver().get(), true, loader).getDeclaredConstructor().newInstance();
+
+            Properties props = new Properties();
+            if (getUsername().isPresent()) {
+                props.put("user", getUsername().get());
+            }
+            if (getPassword().isPresent()) {
+                props.put("password", getPassword().get());
+            }
+            Connection conn = driver.connect(getUrl().get(), props);
+            if (conn == null) {
+                throw new SQLException("driver " + getDriver().get() + " does not accept url " + getUrl().get());
+            }
+            return conn;
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GradleException("could not load driver " + getDriver().get() + ": " + e.getMessage(), e);
+        }
+    }
+}